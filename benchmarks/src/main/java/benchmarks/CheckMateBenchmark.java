@@ -0,0 +1,44 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chess.ChessMatch;
+import chess.Color;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckMateBenchmark { //Separado de ChessMatchBenchmark porque usa as posies em check de Positions.CHECKS
+
+	@Param({ "0", "1", "2", "3", "4" })
+	public int position;
+
+	private ChessMatch chessMatch;
+	private Color color;
+
+	@Setup
+	public void setup() {
+		chessMatch = Positions.loadCheck(position);
+		color = chessMatch.getCheckMate() ? chessMatch.getCurrentPlayer().opponent() : chessMatch.getCurrentPlayer(); //Aps o check mate getCurrentPlayer retorna o vencedor, e no o lado em check
+	}
+
+	@Benchmark
+	public boolean testCheckMate() {
+		return chessMatch.testCheckMate(color);
+	}
+}
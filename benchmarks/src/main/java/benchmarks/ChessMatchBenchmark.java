@@ -0,0 +1,91 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.Move;
+import chess.MoveList;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChessMatchBenchmark {
+
+	@Param({ "0", "1", "2", "3", "4" })
+	public int position;
+
+	private ChessMatch chessMatch;
+	private int move;
+	private MoveList moves = new MoveList();
+
+	@Setup
+	public void setup() {
+		chessMatch = Positions.load(position);
+		move = chessMatch.legalMoves().get(0);
+	}
+
+	@Benchmark
+	public ChessMatch makeMove() { //undoMove restaura tudo o que makeMove altera, ento cada chamada parte da mesma posio
+		chessMatch.makeMove(move);
+		chessMatch.undoMove();
+		return chessMatch;
+	}
+
+	@Benchmark
+	public ChessPiece performChessMove(FreshMatch fresh) { //performChessMove tambm altera turno, check e empate, que undoMove no desfaz; a partida  recarregada a cada chamada, fora da medio
+		return fresh.chessMatch.performChessMove(fresh.source, fresh.target);
+	}
+
+	@Benchmark
+	public boolean testCheck() {
+		return chessMatch.testCheck(chessMatch.getCurrentPlayer());
+	}
+
+	@Benchmark
+	public int legalMoves() {
+		chessMatch.legalMoves(moves);
+		return moves.size();
+	}
+
+	@Benchmark
+	public ChessPiece[][] getPieces() {
+		return chessMatch.getPieces();
+	}
+
+	@State(Scope.Thread)
+	public static class FreshMatch {
+
+		@Param({ "0", "1", "2", "3", "4" })
+		public int position;
+
+		private ChessMatch chessMatch;
+		private ChessPosition source;
+		private ChessPosition target;
+
+		@Setup(Level.Invocation)
+		public void setup() {
+			chessMatch = Positions.load(position);
+			int move = chessMatch.legalMoves().get(0);
+			source = ChessPosition.fromSquare(Move.from(move));
+			target = ChessPosition.fromSquare(Move.to(move));
+		}
+	}
+}
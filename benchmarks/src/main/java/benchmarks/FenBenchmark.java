@@ -0,0 +1,50 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chess.ChessMatch;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FenBenchmark {
+
+	@Param({ "0", "1", "2", "3", "4" })
+	public int position;
+
+	private String fen;
+	private ChessMatch chessMatch;
+	private StringBuilder sb = new StringBuilder(90);
+
+	@Setup
+	public void setup() {
+		fen = Positions.FENS[position];
+		chessMatch = Positions.load(position);
+	}
+
+	@Benchmark
+	public ChessMatch fromFen() {
+		return ChessMatch.fromFen(fen);
+	}
+
+	@Benchmark
+	public int toFen() {
+		sb.setLength(0);
+		return chessMatch.toFen(sb).length();
+	}
+}
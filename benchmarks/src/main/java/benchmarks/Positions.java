@@ -0,0 +1,35 @@
+package benchmarks;
+
+import chess.ChessMatch;
+
+final class Positions {
+
+	//Posies fixas usadas por todos os benchmarks: a inicial, trs meios-jogos e a kiwipete
+	static final String[] FENS = {
+		"rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+		"r1bq1rk1/ppp2ppp/2np1n2/2b1p3/2B1P3/2PP1N2/PP3PPP/RNBQ1RK1 w - - 2 7",
+		"r1bq1rk1/pp1nbppp/2p1p3/3n2B1/2BP4/2N1PN2/PP3PPP/2RQK2R w K - 1 10",
+		"r2q1rk1/1p1nbppp/p2pbn2/4p3/4P3/1NN1BP2/PPPQ2PP/2KR1B1R w - - 5 11",
+		"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1"
+	};
+
+	//Posies em que o jogador da vez est em check, para medir o teste de check mate alm do retorno antecipado: trs mates (do louco, no corredor e abafado) e dois checks com bloqueios
+	static final String[] CHECKS = {
+		"rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3",
+		"R5k1/5ppp/8/8/8/8/8/6K1 b - - 1 1",
+		"6rk/5Npp/8/8/8/8/8/6K1 b - - 0 1",
+		"rnbqkbnr/ppp2ppp/8/1B1pp3/4P3/8/PPPP1PPP/RNBQK1NR b KQkq - 1 3",
+		"rnbqk1nr/pppp1ppp/8/4p3/1b1PP3/8/PPP2PPP/RNBQKBNR w KQkq - 1 3"
+	};
+
+	private Positions() {
+	}
+
+	static ChessMatch load(int index) {
+		return ChessMatch.fromFen(FENS[index]);
+	}
+
+	static ChessMatch loadCheck(int index) {
+		return ChessMatch.fromFen(CHECKS[index]);
+	}
+}
@@ -0,0 +1,62 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.MoveList;
+import chess.PieceType;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PossibleMovesBenchmark {
+
+	@Param({ "PAWN", "KNIGHT", "BISHOP", "ROOK", "QUEEN", "KING" })
+	public PieceType type;
+
+	@Param({ "0", "1", "2", "3", "4" })
+	public int position;
+
+	private ChessPiece piece;
+	private MoveList moves = new MoveList();
+
+	@Setup
+	public void setup() {
+		ChessMatch chessMatch = Positions.load(position);
+		for(ChessPiece[] row : chessMatch.getPieces()) {
+			for(ChessPiece p : row) {
+				if(p != null && p.getType() == type && p.getColor() == chessMatch.getCurrentPlayer() && (piece == null || p.isThereAnyPossibleMove())) {
+					piece = p;
+				}
+			}
+		}
+	}
+
+	@Benchmark
+	public boolean[][] possibleMoves() {
+		return piece.possibleMoves();
+	}
+
+	@Benchmark
+	public int generateMoves() {
+		moves.clear();
+		piece.generateMoves(moves);
+		return moves.size();
+	}
+}
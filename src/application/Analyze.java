@@ -0,0 +1,28 @@
+package application;
+
+import java.util.Arrays;
+
+import chess.ChessMatch;
+import chess.Move;
+import chess.engine.SearchResult;
+import chess.engine.SmpSearch;
+import chess.engine.TranspositionTable;
+
+public class Analyze {
+
+	public static void main(String[] args) {
+		if(args.length == 0) {
+			System.out.println("Usage: Analyze <time ms> [depth] [fen]   (hash size with -Dchess.hash=<MB>, threads with -Dchess.threads=<n>)");
+			return;
+		}
+		long time = Long.parseLong(args[0]);
+		int depth = (args.length > 1) ? Integer.parseInt(args[1]) : 0;
+		ChessMatch chessMatch = (args.length > 2) ? ChessMatch.fromFen(String.join(" ", Arrays.copyOfRange(args, 2, args.length))) : new ChessMatch();
+		
+		SmpSearch search = new SmpSearch(chessMatch, new TranspositionTable());
+		search.setListener(result -> System.out.println("info " + result));
+		SearchResult result = search.search(depth, time, 0);
+		System.out.println("bestmove " + ((result.getBestMove() != 0) ? Move.toString(result.getBestMove()) : "(none)"));
+		System.out.printf("%d nodes in %.3f s (%d nodes/s)%n", result.getNodes(), result.getNanos() / 1e9, result.getNodesPerSecond());
+	}
+}
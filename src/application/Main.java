@@ -18,7 +18,7 @@ public class Main {
 		ChessMatch chessMatch = new ChessMatch();
 		List<ChessPiece> captured = new ArrayList<>();
 		
-		while(!chessMatch.getCheckMate()) {
+		while(!chessMatch.getCheckMate() && !chessMatch.getDraw()) {
 			try {
 				UI.clearScreen();
 				UI.printMatch(chessMatch, captured);
@@ -0,0 +1,122 @@
+package application;
+
+import java.util.Arrays;
+
+import chess.ChessMatch;
+import chess.Move;
+import chess.MoveList;
+
+public class Perft {
+
+	//Posies de referncia e o nmero de posies esperado para cada profundidade, a partir de 1
+	private static final String[] NAMES = { "initial position", "kiwipete", "position 3", "position 4", "position 5", "position 6" };
+	private static final String[] POSITIONS = {
+		"rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+		"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+		"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+		"r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+		"rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+		"r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10"
+	};
+	private static final long[][] NODES = {
+		{ 20, 400, 8902, 197281, 4865609, 119060324 },
+		{ 48, 2039, 97862, 4085603, 193690690 },
+		{ 14, 191, 2812, 43238, 674624, 11030083 },
+		{ 6, 264, 9467, 422333, 15833292 },
+		{ 44, 1486, 62379, 2103487, 89941194 },
+		{ 46, 2079, 89890, 3894594, 164075551 }
+	};
+
+	private MoveList[] moves; //Um buffer por nvel, reaproveitado em toda a contagem
+
+	public Perft(int maxDepth) {
+		moves = new MoveList[maxDepth + 1];
+		for(int i = 0; i < moves.length; i++) {
+			moves[i] = new MoveList();
+		}
+	}
+
+	public long perft(ChessMatch chessMatch, int depth) { //Conta as posies alcanadas jogando todos os movimentos legais at a profundidade informada
+		if(depth == 0) {
+			return 1;
+		}
+		MoveList list = moves[depth];
+		chessMatch.legalMoves(list);
+		if(depth == 1) { //No ltimo nvel basta contar os movimentos legais
+			return list.size();
+		}
+		long nodes = 0;
+		for(int i = 0; i < list.size(); i++) {
+			chessMatch.makeMove(list.get(i));
+			nodes += perft(chessMatch, depth - 1);
+			chessMatch.undoMove();
+		}
+		return nodes;
+	}
+
+	public long divide(ChessMatch chessMatch, int depth) { //Imprime a contagem de cada movimento da raiz separadamente
+		if(depth == 0) { //Sem movimentos para dividir, como em perft
+			return 1;
+		}
+		MoveList list = moves[depth];
+		chessMatch.legalMoves(list);
+		long total = 0;
+		for(int i = 0; i < list.size(); i++) {
+			int move = list.get(i);
+			chessMatch.makeMove(move);
+			long nodes = perft(chessMatch, depth - 1);
+			chessMatch.undoMove();
+			System.out.println(Move.toString(move) + ": " + nodes);
+			total += nodes;
+		}
+		return total;
+	}
+
+	public static void main(String[] args) {
+		if(args.length == 0) {
+			System.out.println("Usage: Perft <depth> [divide] [fen] | Perft check [maxDepth]");
+			return;
+		}
+		if(args[0].equals("check")) {
+			int maxDepth = (args.length > 1) ? Integer.parseInt(args[1]) : 5;
+			System.exit(check(maxDepth) ? 0 : 1);
+		}
+		int depth = Integer.parseInt(args[0]);
+		if(depth < 1) {
+			System.out.println("Usage: Perft <depth> [divide] [fen] | Perft check [maxDepth] (depth must be at least 1)");
+			return;
+		}
+		boolean divide = args.length > 1 && args[1].equals("divide");
+		int fenIndex = divide ? 2 : 1;
+		Perft perft = new Perft(depth);
+		ChessMatch chessMatch = (args.length > fenIndex) ? ChessMatch.fromFen(String.join(" ", Arrays.copyOfRange(args, fenIndex, args.length))) : new ChessMatch();
+		long start = System.nanoTime();
+		long nodes = divide ? perft.divide(chessMatch, depth) : perft.perft(chessMatch, depth);
+		report(depth, nodes, System.nanoTime() - start);
+	}
+
+	private static boolean check(int maxDepth) { //Compara as contagens com os valores de referncia de cada posio
+		boolean ok = true;
+		Perft perft = new Perft(maxDepth);
+		for(int i = 0; i < POSITIONS.length; i++) {
+			ChessMatch chessMatch = ChessMatch.fromFen(POSITIONS[i]);
+			for(int depth = 1; depth <= Math.min(maxDepth, NODES[i].length); depth++) {
+				long start = System.nanoTime();
+				long nodes = perft.perft(chessMatch, depth);
+				boolean match = nodes == NODES[i][depth - 1];
+				ok &= match;
+				System.out.print((match ? "OK    " : "FAIL  ") + NAMES[i] + " ");
+				report(depth, nodes, System.nanoTime() - start);
+				if(!match) {
+					System.out.println("      expected " + NODES[i][depth - 1]);
+				}
+			}
+		}
+		return ok;
+	}
+
+	private static void report(int depth, long nodes, long nanos) {
+		long nps = (nanos > 0) ? nodes * 1_000_000_000L / nanos : 0;
+		System.out.printf("depth %d: %d nodes in %.3f s (%d nodes/s)%n", depth, nodes, nanos / 1e9, nps);
+	}
+}
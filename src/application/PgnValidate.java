@@ -0,0 +1,40 @@
+package application;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import chess.pgn.GameResult;
+import chess.pgn.PgnValidator;
+
+public class PgnValidate {
+
+	private static final int MAX_ERRORS_SHOWN = 20;
+
+	public static void main(String[] args) throws IOException {
+		if(args.length == 0) {
+			System.out.println("Usage: PgnValidate <file.pgn> [threads]");
+			return;
+		}
+		int threads = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		PgnValidator validator = new PgnValidator(threads);
+		AtomicInteger games = new AtomicInteger();
+		AtomicInteger illegal = new AtomicInteger();
+		AtomicLong plies = new AtomicLong();
+		long start = System.nanoTime();
+		validator.validate(Paths.get(args[0]), result -> { //Chamado por vrias threads; s os primeiros jogos ilegais encontrados so mostrados
+			games.incrementAndGet();
+			plies.addAndGet(result.getPlies());
+			if(!result.isLegal() && illegal.getAndIncrement() < MAX_ERRORS_SHOWN) {
+				System.out.println("Game at byte " + result.getOffset() + ": " + result);
+			}
+		});
+		long nanos = System.nanoTime() - start;
+		validator.shutdown();
+		
+		long gamesPerSecond = (nanos > 0) ? games.get() * 1_000_000_000L / nanos : 0;
+		System.out.printf("%d games, %d illegal, %d plies in %.3f s with %d threads (%d games/s)%n", games.get(), illegal.get(), plies.get(), nanos / 1e9, threads, gamesPerSecond);
+		System.exit(illegal.get() == 0 ? 0 : 1);
+	}
+}
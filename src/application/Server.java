@@ -0,0 +1,20 @@
+package application;
+
+import java.io.IOException;
+
+import chess.server.BinaryServer;
+import chess.server.GameHost;
+import chess.server.LineServer;
+
+public class Server {
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		int port = (args.length > 0) ? Integer.parseInt(args[0]) : 7000; //O protocolo binrio usa a porta seguinte
+		int threads = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		GameHost host = new GameHost(threads);
+		try(LineServer server = new LineServer(host, port); BinaryServer binaryServer = new BinaryServer(host, (port == 0) ? 0 : port + 1)) {
+			System.out.println("Text protocol on localhost:" + server.getPort() + ", binary protocol on localhost:" + binaryServer.getPort() + ", " + threads + " game threads");
+			Thread.currentThread().join(); //At o processo ser encerrado
+		}
+	}
+}
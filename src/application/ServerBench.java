@@ -0,0 +1,142 @@
+package application;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import chess.ChessMatch;
+import chess.Move;
+import chess.MoveList;
+import chess.Snapshot;
+import chess.server.BinaryServer;
+import chess.server.GameHost;
+
+public class ServerBench { //Teste de carga do BinaryServer por loopback: cada cliente joga lances aleatrios em vrias partidas e confere cada Snapshot recebido com uma partida local
+
+	private static final int BATCH = 1024; //Pedidos enviados antes de ler as respostas; as respostas de um lote cabem no limite de sada do servidor
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		int clients = (args.length > 0) ? Integer.parseInt(args[0]) : 4;
+		int games = (args.length > 1) ? Integer.parseInt(args[1]) : 5000; //Partidas por cliente
+		int plies = (args.length > 2) ? Integer.parseInt(args[2]) : 20;
+		GameHost host = new GameHost();
+		AtomicLong moves = new AtomicLong();
+		AtomicInteger mismatches = new AtomicInteger();
+		AtomicReference<IOException> failure = new AtomicReference<>();
+		long start = System.nanoTime();
+		try(BinaryServer server = new BinaryServer(host, 0)) {
+			Thread[] threads = new Thread[clients];
+			for(int i = 0; i < clients; i++) {
+				long seed = i;
+				threads[i] = new Thread(() -> {
+					try {
+						play(server.getPort(), games, plies, new Random(seed), moves, mismatches);
+					}
+					catch(IOException e) {
+						failure.compareAndSet(null, e);
+					}
+				}, "client-" + (i + 1));
+				threads[i].start();
+			}
+			for(Thread thread : threads) {
+				thread.join();
+			}
+		}
+		long nanos = System.nanoTime() - start;
+		host.shutdown();
+		if(failure.get() != null) {
+			throw failure.get();
+		}
+		System.out.printf("%d clients, %d games, %d moves in %.3f s (%d moves/s), %d mismatches%n", clients, clients * games, moves.get(), nanos / 1e9, moves.get() * 1_000_000_000L / nanos, mismatches.get());
+		System.exit(mismatches.get() == 0 ? 0 : 1);
+	}
+
+	private static void play(int port, int games, int plies, Random random, AtomicLong moves, AtomicInteger mismatches) throws IOException { //Um cliente, com uma conexo para todas as suas partidas
+		try(SocketChannel channel = SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), port))) {
+			ByteBuffer output = ByteBuffer.allocate(BATCH * 8);
+			ByteBuffer input = ByteBuffer.allocate(BinaryServer.UPDATE_SIZE);
+			int[] ids = new int[games];
+			Map<Integer, ChessMatch> local = new HashMap<>(); //As respostas de partidas diferentes podem chegar fora de ordem
+			for(int first = 0; first < games; first += BATCH) {
+				int count = Math.min(BATCH, games - first);
+				output.clear();
+				for(int i = 0; i < count; i++) {
+					output.put(BinaryServer.NEW);
+				}
+				write(channel, output);
+				for(int i = 0; i < count; i++) {
+					readReply(channel, input);
+					ids[first + i] = input.getInt(1);
+					local.put(ids[first + i], new ChessMatch());
+				}
+			}
+
+			MoveList legal = new MoveList();
+			for(int ply = 0; ply < plies; ply++) {
+				for(int first = 0; first < games; first += BATCH) {
+					output.clear();
+					int sent = 0;
+					for(int i = first; i < Math.min(first + BATCH, games); i++) {
+						ChessMatch chessMatch = local.get(ids[i]);
+						if(chessMatch.getCheckMate() || chessMatch.getDraw()) {
+							continue;
+						}
+						chessMatch.legalMoves(legal);
+						int move = legal.get(random.nextInt(legal.size()));
+						int promotion = Move.isPromotion(move) ? Move.promotionType(move).ordinal() : 0;
+						output.put(BinaryServer.MOVE).putInt(ids[i]).put((byte)Move.from(move)).put((byte)Move.to(move)).put((byte)promotion);
+						chessMatch.performMove(move); //A mesma jogada na partida local, que d o Snapshot esperado
+						sent++;
+					}
+					write(channel, output);
+					for(int i = 0; i < sent; i++) {
+						readReply(channel, input);
+						if(input.get(0) != BinaryServer.UPDATE) {
+							mismatches.incrementAndGet();
+							continue;
+						}
+						ChessMatch chessMatch = local.get(input.getInt(1));
+						input.position(6);
+						if(chessMatch == null || !Snapshot.read(input).equals(chessMatch.snapshot())) {
+							mismatches.incrementAndGet();
+						}
+						moves.incrementAndGet();
+					}
+				}
+			}
+		}
+	}
+
+	private static void write(SocketChannel channel, ByteBuffer output) throws IOException {
+		output.flip();
+		while(output.hasRemaining()) {
+			channel.write(output);
+		}
+	}
+
+	private static void readReply(SocketChannel channel, ByteBuffer input) throws IOException { //L uma resposta inteira, cujo tamanho depende do primeiro byte
+		input.clear().limit(1);
+		fill(channel, input);
+		byte op = input.get(0);
+		input.limit((op == BinaryServer.UPDATE) ? BinaryServer.UPDATE_SIZE : (op == BinaryServer.ERROR) ? BinaryServer.ERROR_SIZE : BinaryServer.GAME_SIZE);
+		fill(channel, input);
+		input.flip();
+	}
+
+	private static void fill(SocketChannel channel, ByteBuffer input) throws IOException {
+		while(input.hasRemaining()) {
+			if(channel.read(input) < 0) {
+				throw new EOFException("Connection closed by the server");
+			}
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package application;
+
+import chess.ChessMatch;
+import chess.engine.SearchResult;
+import chess.engine.SmpSearch;
+import chess.engine.TranspositionTable;
+
+public class SmpBench {
+
+	//Posies de meio-jogo usadas para medir o tempo at a profundidade
+	private static final String[] POSITIONS = {
+		"r1bq1rk1/ppp2ppp/2np1n2/2b1p3/2B1P3/2PP1N2/PP3PPP/RNBQ1RK1 w - - 2 7",
+		"r1bq1rk1/pp1nbppp/2p1p3/3n2B1/2BP4/2N1PN2/PP3PPP/2RQK2R w K - 1 10",
+		"r2q1rk1/1p1nbppp/p2pbn2/4p3/4P3/1NN1BP2/PPPQ2PP/2KR1B1R w - - 5 11",
+		"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+		"r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10"
+	};
+
+	public static void main(String[] args) {
+		int depth = (args.length > 0) ? Integer.parseInt(args[0]) : 7;
+		int threads = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		TranspositionTable table = new TranspositionTable();
+		
+		long[] single = run(table, depth, 1);
+		long[] parallel = run(table, depth, threads);
+		System.out.printf("1 thread:   %.3f s, %d nodes/s%n", single[0] / 1e9, single[1] * 1_000_000_000L / single[0]);
+		System.out.printf("%d threads: %.3f s, %d nodes/s%n", threads, parallel[0] / 1e9, parallel[1] * 1_000_000_000L / parallel[0]);
+		System.out.printf("speedup %.2fx (time to depth %d)%n", (double)single[0] / parallel[0], depth);
+	}
+
+	private static long[] run(TranspositionTable table, int depth, int threads) { //Retorna o tempo total e o nmero total de ns
+		long nanos = 0;
+		long nodes = 0;
+		for(String fen : POSITIONS) {
+			table.clear(); //Cada posio comea com a tabela vazia, para que as medies sejam comparveis
+			SearchResult result = new SmpSearch(ChessMatch.fromFen(fen), table, threads).search(depth, 0, 0);
+			System.out.println(threads + " thread(s): " + result);
+			nanos += result.getNanos();
+			nodes += result.getNodes();
+		}
+		return new long[] { nanos, nodes };
+	}
+}
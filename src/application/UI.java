@@ -58,7 +58,9 @@ public class UI {
 		printCapturedPieces(captured);
 		System.out.println();
 		System.out.println("Turn: " + chessMatch.getTurn());
-		if(!chessMatch.getCheckMate()) {
+		if(chessMatch.getDraw()) {
+			System.out.println("DRAW!");
+		} else if(!chessMatch.getCheckMate()) {
 			System.out.println("Waiting player: " + chessMatch.getCurrentPlayer());
 			if(chessMatch.getCheck()) {
 				System.out.println("CHECK!");
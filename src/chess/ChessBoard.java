@@ -0,0 +1,244 @@
+package chess;
+
+import java.util.Arrays;
+
+import boardgame.Board;
+import boardgame.BoardException;
+import boardgame.Piece;
+import boardgame.Position;
+import chess.attacks.Attacks;
+
+public class ChessBoard extends Board {
+
+	private static final int[] EXCHANGE_VALUES = { 100, 320, 330, 500, 900, 20000 }; //Valores usados por staticExchange, na ordem de PieceType
+
+	private long[] pieceBitboards = new long[12]; //Um bitboard (64 bits, um por casa) para cada tipo de pea de cada cor
+	private long[] colorBitboards = new long[2]; //Todas as peas de cada cor
+	private long occupied; //Todas as casas ocupadas do tabuleiro
+	private ChessPiece[] squares = new ChessPiece[64]; //Pea em cada casa, indexada da mesma forma que os bitboards
+	private int[] kingSquares = { -1, -1 }; //Casa de cada rei, atualizada ao colocar ou remover a pea
+	private long zobristKey; //Parte da chave Zobrist que depende apenas das peas, atualizada a cada pea colocada ou removida
+	private long pawnKey; //Chave Zobrist considerando apenas os pees, que mudam bem menos que as demais peas
+	private Position[] positions = new Position[64];
+	private int[] exchangeGains = new int[32]; //Buffer de staticExchange
+	private MoveList pieceMoves = new MoveList(); //Buffer dos mtodos de ChessPiece herdados de Piece, como possibleMove
+	private EvalWeights weights = EvalWeights.getDefault();
+	private int score; //Material e tabelas pea-casa das brancas menos os das pretas, atualizado a cada pea colocada ou removida
+
+	public ChessBoard() {
+		super(8, 8);
+		for(int i = 0; i < 64; i++) {
+			positions[i] = new Position(i / 8, i % 8);
+		}
+	}
+
+	public static int square(int row, int column) { //Converte linha e coluna da matriz para o ndice da casa (a8 = 0, h1 = 63)
+		return row * 8 + column;
+	}
+
+	public static int square(Position position) {
+		return square(position.getRow(), position.getColumn());
+	}
+
+	public Position position(int square) {
+		return positions[square];
+	}
+
+	MoveList getPieceMoves() {
+		return pieceMoves;
+	}
+
+	public ChessPiece pieceAt(int square) { //Acesso direto sem teste de limites, o ndice deve estar entre 0 e 63
+		return squares[square];
+	}
+
+	public long getOccupied() {
+		return occupied;
+	}
+
+	public long getPieces(Color color) {
+		return colorBitboards[color.ordinal()];
+	}
+
+	public long getPieces(Color color, PieceType type) {
+		return pieceBitboards[index(color, type)];
+	}
+
+	public long getZobristKey() {
+		return zobristKey;
+	}
+
+	public long getPawnKey() {
+		return pawnKey;
+	}
+
+	public int getScore() {
+		return score;
+	}
+
+	public void setWeights(EvalWeights weights) { //Troca os pesos e recalcula o valor das peas que j esto no tabuleiro
+		this.weights = weights;
+		score = 0;
+		for(int square = 0; square < 64; square++) {
+			if(squares[square] != null) {
+				score += weights.value(index(squares[square].getColor(), squares[square].getType()), square);
+			}
+		}
+	}
+
+	public int getKingSquare(Color color) {
+		return kingSquares[color.ordinal()];
+	}
+
+	public long attackersTo(int square, Color color, long occupied) { //Peas da cor informada que atacam a casa, partindo da prpria casa
+		long rooks = getPieces(color, PieceType.ROOK) | getPieces(color, PieceType.QUEEN);
+		long bishops = getPieces(color, PieceType.BISHOP) | getPieces(color, PieceType.QUEEN);
+		return (Attacks.pawn(color.opponent(), square) & getPieces(color, PieceType.PAWN)) //Um peo ataca a casa se um peo adversrio nela atacaria o peo
+				| (Attacks.knight(square) & getPieces(color, PieceType.KNIGHT))
+				| (Attacks.king(square) & getPieces(color, PieceType.KING))
+				| (Attacks.bishop(square, occupied) & bishops)
+				| (Attacks.rook(square, occupied) & rooks);
+	}
+
+	public boolean isSquareAttacked(int square, Color color) { //Testa se alguma pea da cor informada ataca a casa, sem gerar movimentos
+		if((Attacks.knight(square) & getPieces(color, PieceType.KNIGHT)) != 0
+				|| (Attacks.pawn(color.opponent(), square) & getPieces(color, PieceType.PAWN)) != 0
+				|| (Attacks.king(square) & getPieces(color, PieceType.KING)) != 0) {
+			return true;
+		}
+		long queens = getPieces(color, PieceType.QUEEN);
+		return (Attacks.bishop(square, occupied) & (getPieces(color, PieceType.BISHOP) | queens)) != 0
+				|| (Attacks.rook(square, occupied) & (getPieces(color, PieceType.ROOK) | queens)) != 0;
+	}
+
+	public int staticExchange(int move) { //Saldo material da sequncia de capturas na casa de destino, cada lado recapturando com a pea de menor valor, sem fazer os movimentos
+		int from = Move.from(move);
+		int to = Move.to(move);
+		ChessPiece attacker = squares[from];
+		long occupied = this.occupied;
+		int[] gain = exchangeGains;
+		if(Move.flags(move) == Move.EN_PASSANT) {
+			gain[0] = EXCHANGE_VALUES[PieceType.PAWN.ordinal()];
+			occupied ^= 1L << ((attacker.getColor() == Color.WHITE) ? to + 8 : to - 8);
+		} else {
+			gain[0] = (squares[to] != null) ? EXCHANGE_VALUES[squares[to].getType().ordinal()] : 0;
+		}
+		int onSquare = EXCHANGE_VALUES[attacker.getType().ordinal()]; //Valor da pea que ficar na casa e poder ser capturada
+		if(Move.isPromotion(move)) {
+			int promotion = EXCHANGE_VALUES[Move.promotionType(move).ordinal()];
+			gain[0] += promotion - EXCHANGE_VALUES[PieceType.PAWN.ordinal()];
+			onSquare = promotion;
+		}
+		long fromBit = 1L << from;
+		Color side = attacker.getColor();
+		int depth = 0;
+		do {
+			depth++;
+			gain[depth] = onSquare - gain[depth - 1]; //Ganho do lado que recaptura, caso possa faz-lo
+			if(Math.max(-gain[depth - 1], gain[depth]) < 0) { //Nenhum dos lados muda de ideia daqui em diante
+				break;
+			}
+			occupied ^= fromBit;
+			long attackers = (attackersTo(to, Color.WHITE, occupied) | attackersTo(to, Color.BLACK, occupied)) & occupied; //Recalculado com a ocupao atual para incluir as peas que estavam atrs (raio-x)
+			side = side.opponent();
+			fromBit = 0;
+			long own = attackers & colorBitboards[side.ordinal()];
+			for(PieceType type : PieceType.values()) {
+				long pieces = own & pieceBitboards[index(side, type)];
+				if(pieces != 0) {
+					if(type == PieceType.KING && (attackers & ~own) != 0) { //O rei no pode capturar uma pea defendida
+						break;
+					}
+					fromBit = pieces & -pieces;
+					onSquare = EXCHANGE_VALUES[type.ordinal()];
+					break;
+				}
+			}
+		} while(fromBit != 0 && depth < gain.length - 1);
+		while(--depth > 0) {
+			gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+		}
+		return gain[0];
+	}
+
+	//Cpia em blocos usada por ChessMatch.copyFrom: clear, putPiece em cada casa ocupada do outro tabuleiro e por fim copyState
+	void clear() {
+		for(long pieces = occupied; pieces != 0; pieces &= pieces - 1) {
+			int square = Long.numberOfTrailingZeros(pieces);
+			super.removePiece(positions[square]);
+			squares[square] = null;
+		}
+		Arrays.fill(pieceBitboards, 0);
+		Arrays.fill(colorBitboards, 0);
+		occupied = 0;
+	}
+
+	void putPiece(ChessPiece piece, int square) { //Coloca a pea sem atualizar bitboards, chaves e avaliao, que vm prontos em copyState
+		super.placePiece(piece, positions[square]);
+		squares[square] = piece;
+	}
+
+	void copyState(ChessBoard other) {
+		System.arraycopy(other.pieceBitboards, 0, pieceBitboards, 0, pieceBitboards.length);
+		System.arraycopy(other.colorBitboards, 0, colorBitboards, 0, colorBitboards.length);
+		System.arraycopy(other.kingSquares, 0, kingSquares, 0, kingSquares.length);
+		occupied = other.occupied;
+		zobristKey = other.zobristKey;
+		pawnKey = other.pawnKey;
+		weights = other.weights;
+		score = other.score;
+	}
+
+	@Override
+	public void placePiece(Piece piece, Position position) {
+		super.placePiece(piece, position);
+		ChessPiece p = (ChessPiece)piece;
+		int square = square(position);
+		long bit = 1L << square;
+		squares[square] = p;
+		pieceBitboards[index(p.getColor(), p.getType())] |= bit;
+		colorBitboards[p.getColor().ordinal()] |= bit;
+		occupied |= bit;
+		zobristKey ^= Zobrist.piece(p.getColor(), p.getType(), square);
+		score += weights.value(index(p.getColor(), p.getType()), square);
+		if(p.getType() == PieceType.KING) {
+			kingSquares[p.getColor().ordinal()] = square;
+		} else if(p.getType() == PieceType.PAWN) {
+			pawnKey ^= Zobrist.piece(p.getColor(), PieceType.PAWN, square);
+		}
+	}
+
+	@Override
+	public Piece removePiece(Position position) {
+		Piece piece = super.removePiece(position);
+		if(piece != null) {
+			ChessPiece p = (ChessPiece)piece;
+			int square = square(position);
+			long bit = 1L << square;
+			squares[square] = null;
+			pieceBitboards[index(p.getColor(), p.getType())] &= ~bit;
+			colorBitboards[p.getColor().ordinal()] &= ~bit;
+			occupied &= ~bit;
+			zobristKey ^= Zobrist.piece(p.getColor(), p.getType(), square);
+			score -= weights.value(index(p.getColor(), p.getType()), square);
+			if(p.getType() == PieceType.KING) {
+				kingSquares[p.getColor().ordinal()] = -1;
+			} else if(p.getType() == PieceType.PAWN) {
+				pawnKey ^= Zobrist.piece(p.getColor(), PieceType.PAWN, square);
+			}
+		}
+		return piece;
+	}
+
+	@Override
+	public boolean thereIsAPiece(Position position) {
+		if(!positionExists(position)) {
+			throw new BoardException("Position not on the board");
+		}
+		return (occupied & (1L << square(position))) != 0; //Consulta o bitboard de ocupao ao invs da matriz
+	}
+
+	private static int index(Color color, PieceType type) {
+		return color.ordinal() * 6 + type.ordinal();
+	}
+}
@@ -1,12 +1,13 @@
 package chess;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
-import boardgame.Board;
 import boardgame.Piece;
 import boardgame.Position;
+import chess.attacks.Attacks;
 import chess.pieces.Bishop;
 import chess.pieces.King;
 import chess.pieces.Knight;
@@ -18,20 +19,126 @@ public class ChessMatch {
 
 	private int turn;
 	private Color currentPlayer;
-	private Board board;
+	private ChessBoard board;
 	private boolean check;
 	private boolean checkMate;
+	private boolean draw;
 	private ChessPiece enPassantVulnerable;
 	private ChessPiece promoted;
 	
 	private List<Piece> piecesOnTheBoard = new ArrayList<>();
 	private List<Piece> capturedPieces = new ArrayList<>();
 	
+	private MoveGenerator moveGenerator;
+	private MoveList legalMoves = new MoveList(); //Buffer reaproveitado pela validao de movimentos e pelo teste de check mate
+	
+	private int castlingRights; //Bits: 1 roque pequeno branco, 2 roque grande branco, 4 roque pequeno preto, 8 roque grande preto
+	private long stateKey; //Parte da chave Zobrist que no depende das peas: jogador da vez, roques e en passant
+	private int halfmoveClock; //Lances desde a ltima captura ou movimento de peo
+	
+	//Histrico usado por undoMove, guardado em arrays para no alocar objetos a cada movimento
+	private static final int HISTORY_SIZE = 32; //Tamanho inicial, dobrado por growHistory quando necessrio; pequeno para que criar partidas a partir de FEN seja barato
+	private int ply;
+	private int[] moveHistory = new int[HISTORY_SIZE];
+	private ChessPiece[] movedHistory = new ChessPiece[HISTORY_SIZE];
+	private ChessPiece[] capturedHistory = new ChessPiece[HISTORY_SIZE];
+	private ChessPiece[] enPassantHistory = new ChessPiece[HISTORY_SIZE];
+	private int[] castlingHistory = new int[HISTORY_SIZE];
+	private long[] stateKeyHistory = new long[HISTORY_SIZE];
+	private int[] halfmoveHistory = new int[HISTORY_SIZE];
+	private long[] keyHistory = new long[HISTORY_SIZE]; //Chave Zobrist da posio antes de cada movimento, usada na deteco de repeties
+	
+	//Peas que saram do tabuleiro em copyFrom, reaproveitadas nas prximas cpias; indexadas como os bitboards do ChessBoard
+	private static final int SPARE_SIZE = 10; //Duas peas iniciais mais oito promoes
+	private ChessPiece[][] spares;
+	private int[] spareCounts;
+	
+	private static final long LIGHT_SQUARES = 0x55AA55AA55AA55AAL; //Casas claras, a8  clara
+	
+	private static final String FEN_PIECES = "PNBRQK"; //Letras da notao FEN na ordem de PieceType
+	
 	public ChessMatch() {
-		board = new Board(8, 8);
+		board = new ChessBoard();
+		moveGenerator = new MoveGenerator(board);
 		turn = 1;
 		currentPlayer = Color.WHITE;
 		initialSetup();
+		castlingRights = computeCastlingRights();
+		stateKey = computeStateKey();
+	}
+	
+	private ChessMatch(ChessBoard board) { //Partida vazia, preenchida por loadFen
+		this.board = board;
+		moveGenerator = new MoveGenerator(board);
+	}
+	
+	public static ChessMatch fromFen(CharSequence fen) { //Cria a partida a partir de uma posio em notao FEN, lendo os caracteres diretamente, sem dividir a String
+		ChessMatch chessMatch = new ChessMatch(new ChessBoard());
+		chessMatch.loadFen(fen);
+		return chessMatch;
+	}
+	
+	public static ChessMatch fromFen(ByteBuffer buffer) { //L uma linha ASCII a partir da posio atual do buffer e avana a posio at a prxima linha, permitindo ler arquivos com uma FEN por linha
+		int start = buffer.position();
+		int end = start;
+		while(end < buffer.limit() && buffer.get(end) != '\n') {
+			end++;
+		}
+		buffer.position(Math.min(end + 1, buffer.limit()));
+		return fromFen(new AsciiSequence(buffer, start, end));
+	}
+	
+	public static ChessMatch fromSnapshot(Snapshot snapshot) { //Cria uma partida independente a partir de uma posio imutvel, que pode ter vindo de outra thread
+		ChessMatch chessMatch = new ChessMatch(new ChessBoard());
+		chessMatch.loadSnapshot(snapshot);
+		return chessMatch;
+	}
+	
+	public ChessMatch copy() { //Partida independente na mesma posio, para buscas em outras threads
+		ChessMatch chessMatch = new ChessMatch(new ChessBoard());
+		chessMatch.copyFrom(this);
+		return chessMatch;
+	}
+	
+	public void copyFrom(ChessMatch other) { //Copia a posio reaproveitando as peas desta partida; o histrico de undoMove e as peas capturadas no so copiados
+		if(other == this) {
+			return;
+		}
+		if(spares == null) {
+			spares = new ChessPiece[12][SPARE_SIZE];
+			spareCounts = new int[12];
+		}
+		for(int i = 0; i < piecesOnTheBoard.size(); i++) {
+			ChessPiece piece = (ChessPiece)piecesOnTheBoard.get(i);
+			int index = piece.getColor().ordinal() * 6 + piece.getType().ordinal();
+			if(spareCounts[index] < SPARE_SIZE) {
+				spares[index][spareCounts[index]++] = piece;
+			}
+		}
+		board.clear();
+		piecesOnTheBoard.clear();
+		capturedPieces.clear();
+		for(long pieces = other.board.getOccupied(); pieces != 0; pieces &= pieces - 1) {
+			int square = Long.numberOfTrailingZeros(pieces);
+			ChessPiece original = other.board.pieceAt(square);
+			int index = original.getColor().ordinal() * 6 + original.getType().ordinal();
+			ChessPiece piece = (spareCounts[index] > 0) ? spares[index][--spareCounts[index]] : newPiece(original.getType(), original.getColor());
+			piece.setMoveCount(original.getMoveCount());
+			board.putPiece(piece, square);
+			piecesOnTheBoard.add(piece);
+		}
+		board.copyState(other.board);
+		turn = other.turn;
+		currentPlayer = other.currentPlayer;
+		check = other.check;
+		checkMate = other.checkMate;
+		draw = other.draw;
+		enPassantVulnerable = (other.enPassantVulnerable != null) ? board.pieceAt(other.enPassantVulnerable.square()) : null;
+		promoted = null; //A cpia no tem histrico, ento a promoo do ltimo lance no pode mais ser trocada
+		castlingRights = other.castlingRights;
+		stateKey = other.stateKey;
+		halfmoveClock = other.halfmoveClock;
+		ply = 0;
 	}
 	
 	public int getTurn() {
@@ -39,7 +146,7 @@ public class ChessMatch {
 	}
 	
 	public Color getCurrentPlayer() {
-		return currentPlayer;
+		return checkMate ? currentPlayer.opponent() : currentPlayer; //Aps o check mate retorna o vencedor, que foi o ltimo a jogar
 	}
 	
 	public boolean getCheck() {
@@ -50,6 +157,10 @@ public class ChessMatch {
 		return checkMate;
 	}
 	
+	public boolean getDraw() { //Empate por afogamento, material insuficiente, tripla repetio ou pela regra dos cinquenta lances, verificado a cada performChessMove
+		return draw;
+	}
+	
 	public ChessPiece getEnPassantVulnerable() {
 		return enPassantVulnerable;
 	}
@@ -58,68 +169,180 @@ public class ChessMatch {
 		return promoted;
 	}
 	
+	public long getZobristKey() { //Chave de 64 bits da posio: peas, jogador da vez, direitos de roque e coluna do en passant
+		return board.getZobristKey() ^ stateKey;
+	}
+	
+	public int getHalfmoveClock() {
+		return halfmoveClock;
+	}
+	
+	public long getPieces(Color color, PieceType type) { //Bitboard das peas do tipo e cor informados
+		return board.getPieces(color, type);
+	}
+	
+	public int evaluate() { //Avaliao esttica do ponto de vista do jogador da vez, mantida pelo tabuleiro a cada movimento
+		return (currentPlayer == Color.WHITE) ? board.getScore() : -board.getScore();
+	}
+	
+	public void setEvalWeights(EvalWeights weights) {
+		board.setWeights(weights);
+	}
+	
+	public boolean isInCheck() { //Se o jogador da vez est em check na posio atual, tambm durante uma busca feita com makeMove
+		return testCheck(currentPlayer);
+	}
+	
+	public ChessPiece pieceAt(int square) { //Pea da casa informada (ver ChessBoard.square), sem montar a matriz de getPieces
+		return board.pieceAt(square);
+	}
+	
+	public long getPawnKey() { //Chave que muda apenas quando um peo se move,  capturado ou promovido
+		return board.getPawnKey();
+	}
+	
 	public ChessPiece[][] getPieces() {
 		ChessPiece[][] mat = new ChessPiece[board.getRows()][board.getColumns()];
 		for(int i = 0; i < board.getRows(); i++) {
 			for(int j = 0; j < board.getColumns(); j++) {
-				mat[i][j] = (ChessPiece) board.piece(i, j);
+				mat[i][j] = board.pieceAt(ChessBoard.square(i, j));
 			}
 		}
 		return mat;
 	}
 	
+	public String toFen() {
+		return toFen(new StringBuilder(90)).toString();
+	}
+	
+	public StringBuilder toFen(StringBuilder sb) { //Escreve a posio em notao FEN no final do StringBuilder informado, que pode ser reaproveitado entre chamadas
+		for(int row = 0; row < 8; row++) {
+			int empty = 0;
+			for(int column = 0; column < 8; column++) {
+				ChessPiece p = board.pieceAt(ChessBoard.square(row, column));
+				if(p == null) {
+					empty++;
+					continue;
+				}
+				if(empty > 0) {
+					sb.append((char)('0' + empty));
+					empty = 0;
+				}
+				char c = FEN_PIECES.charAt(p.getType().ordinal());
+				sb.append((p.getColor() == Color.WHITE) ? c : Character.toLowerCase(c));
+			}
+			if(empty > 0) {
+				sb.append((char)('0' + empty));
+			}
+			if(row < 7) {
+				sb.append('/');
+			}
+		}
+		sb.append(' ').append((currentPlayer == Color.WHITE) ? 'w' : 'b').append(' ');
+		if(castlingRights == 0) {
+			sb.append('-');
+		}
+		if((castlingRights & 1) != 0) sb.append('K');
+		if((castlingRights & 2) != 0) sb.append('Q');
+		if((castlingRights & 4) != 0) sb.append('k');
+		if((castlingRights & 8) != 0) sb.append('q');
+		sb.append(' ');
+		if(enPassantVulnerable == null) {
+			sb.append('-');
+		} else { //A casa de en passant  a que o peo pulou
+			int square = enPassantVulnerable.square();
+			int behind = (enPassantVulnerable.getColor() == Color.WHITE) ? square + 8 : square - 8;
+			sb.append((char)('a' + behind % 8)).append(8 - behind / 8);
+		}
+		sb.append(' ').append(halfmoveClock).append(' ').append((turn + 1) / 2);
+		return sb;
+	}
+	
+	public Snapshot snapshot() { //Posio atual em poucos longs, sem referncias s peas e ao tabuleiro
+		int enPassantColumn = (enPassantVulnerable != null) ? enPassantVulnerable.square() % 8 : -1;
+		return new Snapshot(board, currentPlayer, castlingRights, enPassantColumn, halfmoveClock, (turn + 1) / 2);
+	}
+	
+	public void restore(Snapshot snapshot) { //Troca a posio pela do snapshot, reaproveitando o tabuleiro; o histrico de undoMove  descartado
+		capturedPieces.clear();
+		ply = 0;
+		promoted = null;
+		loadSnapshot(snapshot);
+	}
+	
 	public boolean[][] possibleMoves(ChessPosition sourcePosition) { //retorna uma matriz de booleans que mostram os possiveis movimentos da pea indicada
 		Position position = sourcePosition.toPosition();
 		validateSourcePosition(position);
 		return board.piece(position).possibleMoves();
 	}
 	
+	public MoveList legalMoves() { //Movimentos legais do jogador atual
+		MoveList moves = new MoveList();
+		legalMoves(moves);
+		return moves;
+	}
+	
+	public void legalMoves(MoveList moves) { //Verso que escreve no buffer informado pelo chamador, sem alocao
+		moves.clear();
+		moveGenerator.generateLegalMoves(currentPlayer, moves);
+	}
+	
+	public void legalCaptures(MoveList moves) { //Capturas (incluindo en passant) e promoes legais do jogador atual, usadas pela busca de quiescncia
+		moves.clear();
+		long promotionRank = (currentPlayer == Color.WHITE) ? 0xFFL : 0xFFL << 56;
+		moveGenerator.generateLegalMoves(currentPlayer, moves, board.getPieces(currentPlayer.opponent()) | promotionRank);
+		for(int i = moves.size() - 1; i >= 0; i--) { //Outras peas tambm podem ir para a ltima linha sem capturar
+			int move = moves.get(i);
+			if(!Move.isCapture(move) && !Move.isPromotion(move)) {
+				moves.remove(i);
+			}
+		}
+	}
+	
+	public int staticExchange(int move) { //Saldo material esperado da troca iniciada pelo movimento, em centipees, sem jog-la no tabuleiro
+		return board.staticExchange(move);
+	}
+	
 	public ChessPiece performChessMove(ChessPosition sourcePosition, ChessPosition targetPosition) { //Mtodo que realiza todo o movimento no xadrez
 		Position source = sourcePosition.toPosition(); //Convertendo a posio informada para posio de matriz
 		Position target = targetPosition.toPosition();
-		validateSourcePosition(source); //Verificando se a posio informada possui pea ou no
-		validateTargetPosition(source, target); //Se a posio de destino  realmente valida para alocar a pea
-		Piece capturedPiece = makeMove(source, target); //Capturando a pea na posio informada
-		
-		if(testCheck(currentPlayer)) { //Testa se o jogador esta se colocando em check
-			undoMove(source, target, capturedPiece);
-			throw new ChessException("You can't put yourself in check");
+		validateSourcePiece(source); //Verificando se a posio informada possui pea do jogador atual
+		int move = findLegalMove(source, target); //Uma nica gerao de movimentos legais quando o movimento  vlido
+		if(move < 0) { //S no erro as validaes so refeitas, para informar o motivo
+			validateSourcePosition(source);
+			validateTargetPosition(source, target); //Se a posio de destino  realmente valida para alocar a pea
+			throw new ChessException("You can't put yourself in check"); //Movimento possvel, mas que deixaria o prprio rei em check
 		}
+		return performMove(move);
+	}
+	
+	public ChessPiece performMove(int move) { //Como performChessMove, mas com um movimento empacotado que deve estar em legalMoves; nas promoes a pea j vem no movimento
+		makeMove(move); //Faz o movimento e passa a vez para o oponente
+		ChessPiece capturedPiece = capturedHistory[ply - 1];
 		
-		check = (testCheck(opponent(currentPlayer))) ? true : false; //Se o oponente estiver em check retorna true, caso contrrio false
-		
-		ChessPiece movedPiece = (ChessPiece)board.piece(target);
+		check = testCheck(currentPlayer); //Se o oponente estiver em check retorna true, caso contrrio false
 		
 		//#Specialmove promotion
-		promoted = null;
-		if(movedPiece instanceof Pawn) {
-			if(movedPiece.getColor() == Color.WHITE && target.getRow() == 0 || movedPiece.getColor() == Color.BLACK && target.getRow() == 7) {
-				promoted = (ChessPiece)board.piece(target);
-				promoted = replacePromotedPiece("Q");
-			}
-		}
+		promoted = Move.isPromotion(move) ? board.pieceAt(Move.to(move)) : null; //O peo j foi promovido em makeMove
 		
-		if(testCheckMate(opponent(currentPlayer))) {
+		if(testCheckMate(currentPlayer)) {
 			checkMate = true;
 		}
 		else {
-			nextTurn(); //Mtodo que incrementa o turno atual na partida e muda o jogador
-		}
-		
-		//#Specialmove en passant
-		if(movedPiece instanceof Pawn && (target.getRow() == source.getRow() - 2 || target.getRow() == source.getRow() + 2)) { //Teste para saber se a pea movida pod sofrer o en passant
-			enPassantVulnerable = movedPiece;
-		} else {
-			enPassantVulnerable = null;
+			turn++;
+			draw = testDraw();
 		}
 	
-		return (ChessPiece)capturedPiece; //Downcast de Piece para ChessPiece
+		return capturedPiece;
 	}
 	
 	public ChessPiece replacePromotedPiece(String type) {
 		if (promoted == null) {
 			throw new IllegalStateException("There is no piece to be promoted");
 		}
+		if(ply == 0) { //Sem o lance no histrico, o tabuleiro seria alterado sem poder ser desfeito
+			throw new IllegalStateException("The promotion is not in the move history");
+		}
 		if(!type.equals("B") && !type.equals("N") && !type.equals("R") && !type.equals("Q")) { //String  um tipo classe, e no primitivo, por isso o uso de "equals"
 			return promoted;
 		}
@@ -132,6 +355,17 @@ public class ChessMatch {
 		board.placePiece(newPiece, pos);
 		piecesOnTheBoard.add(newPiece);
 		
+		int move = moveHistory[ply - 1]; //Atualiza o histrico para que undoMove desfaa a promoo escolhida
+		moveHistory[ply - 1] = Move.promotion(Move.from(move), Move.to(move), newPiece.getType(), Move.isCapture(move));
+		
+		check = testCheck(currentPlayer); //A pea escolhida pode dar ou deixar de dar check e check mate, diferente da rainha colocada em performChessMove
+		boolean mate = testCheckMate(currentPlayer);
+		if(mate != checkMate) {
+			turn += mate ? -1 : 1;
+			checkMate = mate;
+		}
+		draw = !checkMate && testDraw(); //Uma promoo a outra pea pode afogar o adversrio ou deixar material insuficiente
+		
 		return newPiece;
 	}
 	
@@ -142,109 +376,206 @@ public class ChessMatch {
 		return new Rook(board, color);
 	}
 	
-	private Piece makeMove(Position source, Position target) {
+	private ChessPiece newPiece(PieceType type, Color color) {
+		switch(type) {
+		case BISHOP:
+			return new Bishop(board, color);
+		case KNIGHT:
+			return new Knight(board, color);
+		case ROOK:
+			return new Rook(board, color);
+		case PAWN:
+			return new Pawn(board, color, this);
+		case KING:
+			return new King(board, color);
+		default:
+			return new Queen(board, color);
+		}
+	}
+	
+	public void makeMove(int move) { //Faz o movimento empacotado (ver Move), que deve ser legal para o jogador atual, e passa a vez
+		if(ply == moveHistory.length) {
+			growHistory();
+		}
+		int flags = Move.flags(move);
+		Position source = board.position(Move.from(move));
+		Position target = board.position(Move.to(move));
+		moveHistory[ply] = move;
+		enPassantHistory[ply] = enPassantVulnerable;
+		castlingHistory[ply] = castlingRights;
+		stateKeyHistory[ply] = stateKey;
+		halfmoveHistory[ply] = halfmoveClock;
+		keyHistory[ply] = board.getZobristKey() ^ stateKey;
+		
 		ChessPiece p = (ChessPiece)board.removePiece(source); //remove a pea da posio inicial
 		p.increaseMoveCount();
-		Piece capturedPiece = board.removePiece(target); //move a pea para a posio desejada capturando a pea que estiver l
-		board.placePiece(p, target); //colocando a pea desejada na posio informada anteriormente
-		
+		ChessPiece capturedPiece = null;
+		if(flags == Move.EN_PASSANT) { //#Specialmove en passant: o peo capturado est na linha de origem e na coluna de destino
+			capturedPiece = (ChessPiece)board.removePiece(board.position(ChessBoard.square(source.getRow(), target.getColumn())));
+		} else if(Move.isCapture(move)) {
+			capturedPiece = (ChessPiece)board.removePiece(target); //captura a pea que estiver no destino
+		}
 		if(capturedPiece != null) {
 			piecesOnTheBoard.remove(capturedPiece);
 			capturedPieces.add(capturedPiece);
 		}
+		movedHistory[ply] = p;
+		capturedHistory[ply] = capturedPiece;
 		
-		//#Specialmove castling kingside rook
-		if(p instanceof King && target.getColumn() == source.getColumn() + 2) {
-			Position sourceT = new Position(source.getRow(), source.getColumn() + 3); //Pegando a torre na posio inicial do lado do rei
-			Position targetT = new Position(source.getRow(), source.getColumn() + 1); //definindo a nova posio da torre aps o roque
-			ChessPiece rook = (ChessPiece)board.removePiece(sourceT); //Criando variavel auxiliar para pegar e mover a torre
-			board.placePiece(rook, targetT);
-			rook.increaseMoveCount();
+		if(Move.isPromotion(move)) { //#Specialmove promotion
+			ChessPiece newPiece = newPiece(Move.promotionType(move), p.getColor());
+			piecesOnTheBoard.remove(p);
+			board.placePiece(newPiece, target);
+			piecesOnTheBoard.add(newPiece);
+		} else {
+			board.placePiece(p, target); //colocando a pea desejada na posio informada anteriormente
 		}
 		
+		//#Specialmove castling kingside rook
+		if(flags == Move.KING_CASTLE) {
+			moveRook(Move.from(move) + 3, Move.from(move) + 1, true);
+		}
 		//#Specialmove castling queenside rook
-				if(p instanceof King && target.getColumn() == source.getColumn() - 2) {
-					Position sourceT = new Position(source.getRow(), source.getColumn() - 4);
-					Position targetT = new Position(source.getRow(), source.getColumn() - 1);
-					ChessPiece rook = (ChessPiece)board.removePiece(sourceT);
-					board.placePiece(rook, targetT);
-					rook.increaseMoveCount();
-				}
-			
-		//#Specialmove en passant
-		if(p instanceof Pawn) {
-			if(source.getColumn() != target.getColumn() && capturedPiece == null) {
-				Position pawnPosition;
-				if(p.getColor() == Color.WHITE) {
-					pawnPosition = new Position(target.getRow() + 1, target.getColumn());
-				} else {
-					pawnPosition = new Position(target.getRow() - 1, target.getColumn());
-				}
-				capturedPiece = board.removePiece(pawnPosition);
-				piecesOnTheBoard.remove(capturedPiece);
-				capturedPieces.add(capturedPiece);
-			}
+		if(flags == Move.QUEEN_CASTLE) {
+			moveRook(Move.from(move) - 4, Move.from(move) - 1, true);
 		}
 		
-		return capturedPiece;
+		enPassantVulnerable = (flags == Move.DOUBLE_PAWN_PUSH) ? p : null;
+		halfmoveClock = (capturedPiece != null || p.getType() == PieceType.PAWN) ? 0 : halfmoveClock + 1;
+		currentPlayer = currentPlayer.opponent();
+		castlingRights = computeCastlingRights();
+		stateKey = computeStateKey(); //A parte das peas da chave j foi atualizada pelo tabuleiro
+		ply++;
 	}
 	
-	private void undoMove(Position source, Position target, Piece capturedPiece) { //Mtodo para desfazer o movimento feito anteriormente em "makeMove"
+	public void undoMove() { //Desfaz o ltimo movimento feito em makeMove, restaurando o estado guardado no histrico
+		if(ply == 0) {
+			throw new IllegalStateException("There is no move to undo");
+		}
+		ply--;
+		int move = moveHistory[ply];
+		int flags = Move.flags(move);
+		Position source = board.position(Move.from(move));
+		Position target = board.position(Move.to(move));
+		currentPlayer = currentPlayer.opponent();
+		
 		ChessPiece p = (ChessPiece)board.removePiece(target); //Remove a pea da posio ocupada anteriormente
+		if(Move.isPromotion(move)) { //Troca a pea promovida pelo peo original
+			piecesOnTheBoard.remove(p);
+			p = movedHistory[ply];
+			piecesOnTheBoard.add(p);
+		}
 		p.decreaseMoveCount();
 		board.placePiece(p, source); //volta ela para a posio inicial
 		
+		ChessPiece capturedPiece = capturedHistory[ply];
 		if(capturedPiece != null) { //verifica se houve alguma captura de pea
-			board.placePiece(capturedPiece, target); //coloca a pea capturada no destino
-			capturedPieces.remove(capturedPiece); //remove a pea capturada da lista de capturas
+			Position capturedPosition = (flags == Move.EN_PASSANT) ? board.position(ChessBoard.square(source.getRow(), target.getColumn())) : target;
+			board.placePiece(capturedPiece, capturedPosition); //coloca a pea capturada de volta
+			capturedPieces.remove(capturedPieces.size() - 1); //remove a pea capturada da lista de capturas
 			piecesOnTheBoard.add(capturedPiece); //coloca de volta na lista de peas em jogo
 		}
 		
-		//#Specialmove castling kingside rook
-		if(p instanceof King && target.getColumn() == source.getColumn() + 2) {
-			Position sourceT = new Position(source.getRow(), source.getColumn() + 3);
-			Position targetT = new Position(source.getRow(), source.getColumn() + 1);
-			ChessPiece rook = (ChessPiece)board.removePiece(targetT);
-			board.placePiece(rook, sourceT);
-			rook.decreaseMoveCount();
+		if(flags == Move.KING_CASTLE) {
+			moveRook(Move.from(move) + 1, Move.from(move) + 3, false);
 		}
-				
-		//#Specialmove castling queenside rook
-		if(p instanceof King && target.getColumn() == source.getColumn() - 2) {
-			Position sourceT = new Position(source.getRow(), source.getColumn() - 4);
-			Position targetT = new Position(source.getRow(), source.getColumn() - 1);
-			ChessPiece rook = (ChessPiece)board.removePiece(targetT);
-			board.placePiece(rook, sourceT);
-			rook.decreaseMoveCount();
+		if(flags == Move.QUEEN_CASTLE) {
+			moveRook(Move.from(move) - 1, Move.from(move) - 4, false);
 		}
 		
-		//#Specialmove en passant
-		if(p instanceof Pawn) {
-			if(source.getColumn() != target.getColumn() && capturedPiece == enPassantVulnerable) {
-				ChessPiece pawn = (ChessPiece)board.removePiece(target);
-				Position pawnPosition;
-				if(p.getColor() == Color.WHITE) {
-					pawnPosition = new Position(3, target.getColumn());
-				} else {
-					pawnPosition = new Position(4, target.getColumn());
-				}
-				board.placePiece(pawn, pawnPosition);
-				
-				capturedPiece = board.removePiece(pawnPosition);
+		enPassantVulnerable = enPassantHistory[ply];
+		castlingRights = castlingHistory[ply];
+		stateKey = stateKeyHistory[ply];
+		halfmoveClock = halfmoveHistory[ply];
+	}
+	
+	private void moveRook(int from, int to, boolean forward) {
+		ChessPiece rook = (ChessPiece)board.removePiece(board.position(from));
+		board.placePiece(rook, board.position(to));
+		if(forward) {
+			rook.increaseMoveCount();
+		} else {
+			rook.decreaseMoveCount();
+		}
+	}
+	
+	private void growHistory() {
+		int length = moveHistory.length * 2;
+		moveHistory = Arrays.copyOf(moveHistory, length);
+		movedHistory = Arrays.copyOf(movedHistory, length);
+		capturedHistory = Arrays.copyOf(capturedHistory, length);
+		enPassantHistory = Arrays.copyOf(enPassantHistory, length);
+		castlingHistory = Arrays.copyOf(castlingHistory, length);
+		stateKeyHistory = Arrays.copyOf(stateKeyHistory, length);
+		halfmoveHistory = Arrays.copyOf(halfmoveHistory, length);
+		keyHistory = Arrays.copyOf(keyHistory, length);
+	}
+	
+	public int repetitions() { //Quantas vezes a posio atual j ocorreu, tambm durante uma busca feita com makeMove; s  preciso voltar at a ltima captura ou movimento de peo, que no podem ser desfeitos
+		long key = getZobristKey();
+		int count = 0;
+		int limit = Math.max(0, ply - halfmoveClock);
+		for(int i = ply - 4; i >= limit; i -= 2) { //Posies com o mesmo jogador da vez, a primeira possvel quatro meio-lances atrs
+			if(keyHistory[i] == key) {
+				count++;
+			}
+		}
+		return count;
+	}
+	
+	private int computeCastlingRights() { //Os direitos de roque vm da contagem de movimentos do rei e das torres, como em King
+		int rights = 0;
+		if(canCastle(Color.WHITE, 60, 63)) {
+			rights |= 1;
+		}
+		if(canCastle(Color.WHITE, 60, 56)) {
+			rights |= 2;
+		}
+		if(canCastle(Color.BLACK, 4, 7)) {
+			rights |= 4;
+		}
+		if(canCastle(Color.BLACK, 4, 0)) {
+			rights |= 8;
+		}
+		return rights;
+	}
+	
+	private boolean canCastle(Color color, int kingSquare, int rookSquare) {
+		ChessPiece king = board.pieceAt(kingSquare);
+		ChessPiece rook = board.pieceAt(rookSquare);
+		return king instanceof King && king.getColor() == color && king.getMoveCount() == 0
+				&& rook instanceof Rook && rook.getColor() == color && rook.getMoveCount() == 0;
+	}
+	
+	private long computeStateKey() {
+		long key = Zobrist.castling(castlingRights);
+		if(currentPlayer == Color.BLACK) {
+			key ^= Zobrist.blackToMove();
+		}
+		if(enPassantVulnerable != null) { //A coluna do en passant s entra na chave se algum peo puder de fato fazer a captura
+			int square = enPassantVulnerable.square();
+			int behind = (enPassantVulnerable.getColor() == Color.WHITE) ? square + 8 : square - 8;
+			if((Attacks.pawn(enPassantVulnerable.getColor(), behind) & board.getPieces(currentPlayer, PieceType.PAWN)) != 0) {
+				key ^= Zobrist.enPassant(square % 8);
 			}
 		}
+		return key;
 	}
 	
 	private void validateSourcePosition(Position position) {
+		validateSourcePiece(position);
+		if(!board.piece(position).isThereAnyPossibleMove()) {
+			throw new ChessException("There is no possible moves for the chosen piece");
+		}
+	}
+	
+	private void validateSourcePiece(Position position) {
 		if(!board.thereIsAPiece(position)) {
 			throw new ChessException("There is no piece on source position");
 		}
 		if(currentPlayer != ((ChessPiece)board.piece(position)).getColor()) {
 			throw new ChessException("The chosen piece is not yours");
 		}
-		if(!board.piece(position).isThereAnyPossibleMove()) {
-			throw new ChessException("There is no possible moves for the chosen piece");
-		}
 	}
 	
 	private void validateTargetPosition(Position source, Position target) {
@@ -253,60 +584,267 @@ public class ChessMatch {
 		}
 	}
 	
-	private void nextTurn() {
-		turn++;
-		currentPlayer = (currentPlayer == Color.WHITE) ? Color.BLACK : Color.WHITE; //Se o jogador atual for igual ao branco ento ele mudar para o preto, caso contrrio mudara para o branco
+	private ChessPiece king(Color color) {
+		int square = board.getKingSquare(color); //Casa do rei mantida pelo prprio tabuleiro
+		if(square < 0) {
+			throw new IllegalStateException("There is no " + color + " King on the board");
+		}
+		return board.pieceAt(square);
 	}
 	
-	private Color opponent(Color color) {
-		return (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
+	public boolean testCheck(Color color) {
+		int kingSquare = king(color).square();
+		return board.isSquareAttacked(kingSquare, color.opponent()); //Procura atacantes partindo da casa do rei, pelos raios e saltos de cavalo e peo
 	}
 	
-	private ChessPiece king(Color color) {
-		List<Piece> list = piecesOnTheBoard.stream().filter(x -> ((ChessPiece)x).getColor() == color).collect(Collectors.toList()); //Faz uma lista com todas as peas da cor passada
-		for(Piece p : list) { //Percorre a lista e retorna o rei caso ele esteja em jogo
-			if(p instanceof King) {
-				return (ChessPiece)p;
-			}
+	public boolean testCheckMate(Color color) {
+		if(!testCheck(color)) {
+			return false;
 		}
-		throw new IllegalStateException("There is no " + color + " King on the board");
+		return !moveGenerator.hasLegalMove(color, legalMoves); //Check mate  estar em check sem nenhum movimento legal, sem testar jogadas no tabuleiro
 	}
 	
-	private boolean testCheck(Color color) {
-		Position kingPosition = king(color).getChessPosition().toPosition(); //Pega a posio do rei em formato de matriz
-		List<Piece> opponentPieces = piecesOnTheBoard.stream().filter(x -> ((ChessPiece)x).getColor() == opponent(color)).collect(Collectors.toList());
-		for(Piece p : opponentPieces) { //Percorre a lista criada anteriormente
-			boolean[][] mat = p.possibleMoves(); //Cria uma matriz com os possiveis movimentos das peas opostas
-			if(mat[kingPosition.getRow()][kingPosition.getColumn()]) { //Caso haja alguma pea que tem o rei como alvo e possvel movimento o mtodo retorna true
-				return true;
-			}
+	public boolean testStalemate(Color color) { //Afogamento: sem check e sem movimentos legais; a gerao para no primeiro movimento encontrado
+		if(testCheck(color)) {
+			return false;
 		}
-		return false;
+		return !moveGenerator.hasLegalMove(color, legalMoves);
 	}
 	
-	private boolean testCheckMate(Color color) {
-		if(!testCheck(color)) {
+	public boolean isInsufficientMaterial() { //Nenhum lado pode dar check mate: s reis e no mximo uma pea menor, ou apenas bispos em casas da mesma cor
+		if((board.getPieces(Color.WHITE, PieceType.PAWN) | board.getPieces(Color.BLACK, PieceType.PAWN)
+				| board.getPieces(Color.WHITE, PieceType.ROOK) | board.getPieces(Color.BLACK, PieceType.ROOK)
+				| board.getPieces(Color.WHITE, PieceType.QUEEN) | board.getPieces(Color.BLACK, PieceType.QUEEN)) != 0) {
 			return false;
 		}
-		List<Piece> list = piecesOnTheBoard.stream().filter(x -> ((ChessPiece)x).getColor() == color).collect(Collectors.toList());
-		for(Piece p : list) {
-			boolean[][] mat = p.possibleMoves(); //Matriz auxiliar que pega todos os movimentos possiveis de todas as peas da cor indicada
-			for (int i = 0; i < board.getRows(); i++) {
-				for(int j = 0; j < board.getColumns(); j++) {
-					if(mat[i][j]) { //O if ser ativado sempre que alguma pea da matriz ter movimentos possiveis (retornar true)
-						Position source = ((ChessPiece)p).getChessPosition().toPosition(); //Varivel auxiliar que salva a posio da pea 'p'
-						Position target = new Position(i, j); //Vriavel auxiliar que salva o movimento possvel identificado na matriz
-						Piece capturedPiece = makeMove(source, target); //Auxiliar que faz o movimento identificado anteriormente
-						boolean testCheck = testCheck(color);
-						undoMove(source, target, capturedPiece); //Disfaz todo o movimento anterior
-						if(!testCheck) { //Caso continue em check retorna true, pelo contrrio retorna false e nega o check mate
-							return false;
-						}
-					}
+		long knights = board.getPieces(Color.WHITE, PieceType.KNIGHT) | board.getPieces(Color.BLACK, PieceType.KNIGHT);
+		long bishops = board.getPieces(Color.WHITE, PieceType.BISHOP) | board.getPieces(Color.BLACK, PieceType.BISHOP);
+		if(Long.bitCount(knights | bishops) <= 1) {
+			return true;
+		}
+		return knights == 0 && ((bishops & LIGHT_SQUARES) == 0 || (bishops & ~LIGHT_SQUARES) == 0);
+	}
+	
+	private boolean testDraw() { //Chamado depois de um movimento que no deu check mate, dos testes mais baratos para o mais caro
+		return halfmoveClock >= 100 || isInsufficientMaterial() || repetitions() >= 2 || testStalemate(currentPlayer);
+	}
+	
+	private int findLegalMove(Position source, Position target) { //Retorna -1 caso o movimento no seja legal; nas promoes a primeira ocorrncia  a rainha
+		legalMoves(legalMoves);
+		int from = ChessBoard.square(source);
+		int to = ChessBoard.square(target);
+		for(int i = 0; i < legalMoves.size(); i++) {
+			int move = legalMoves.get(i);
+			if(Move.from(move) == from && Move.to(move) == to) {
+				return move;
+			}
+		}
+		return -1;
+	}
+	
+	private void loadFen(CharSequence fen) { //Campos: peas, jogador da vez, roques, en passant, meio-lances e nmero do lance (os dois ltimos so opcionais)
+		int i = skipSpaces(fen, 0);
+		int row = 0;
+		int column = 0;
+		for(; i < fen.length() && fen.charAt(i) != ' '; i++) {
+			char c = fen.charAt(i);
+			if(c == '/') {
+				if(column != 8 || row == 7) {
+					throw invalidFen(fen, "wrong number of squares in a rank");
+				}
+				row++;
+				column = 0;
+			} else if(c >= '1' && c <= '8') {
+				column += c - '0';
+			} else {
+				if(column > 7) {
+					throw invalidFen(fen, "wrong number of squares in a rank");
 				}
+				ChessPiece piece = newPiece(fen, c);
+				if(piece.getType() == PieceType.PAWN && (row == 0 || row == 7)) {
+					throw invalidFen(fen, "pawn on the first or last rank");
+				}
+				board.placePiece(piece, board.position(ChessBoard.square(row, column)));
+				piecesOnTheBoard.add(piece);
+				column++;
+			}
+			if(column > 8) {
+				throw invalidFen(fen, "wrong number of squares in a rank");
+			}
+		}
+		if(row != 7 || column != 8) {
+			throw invalidFen(fen, "the board must have 8 ranks of 8 squares");
+		}
+		for(Color color : Color.values()) {
+			if(Long.bitCount(board.getPieces(color, PieceType.KING)) != 1) {
+				throw invalidFen(fen, "each side must have exactly one King");
 			}
 		}
-		return true;
+		
+		i = skipSpaces(fen, i);
+		char side = (i < fen.length()) ? fen.charAt(i++) : ' ';
+		if(side != 'w' && side != 'b') {
+			throw invalidFen(fen, "side to move must be 'w' or 'b'");
+		}
+		currentPlayer = (side == 'w') ? Color.WHITE : Color.BLACK;
+		
+		i = skipSpaces(fen, i);
+		int rights = 0;
+		if(i < fen.length() && fen.charAt(i) == '-') {
+			i++;
+		} else {
+			for(; i < fen.length() && fen.charAt(i) != ' '; i++) {
+				int bit = "KQkq".indexOf(fen.charAt(i));
+				if(bit < 0) {
+					throw invalidFen(fen, "invalid castling rights");
+				}
+				rights |= 1 << bit;
+			}
+		}
+		markMovedPieces(rights); //O roque  decidido pela contagem de movimentos do rei e das torres
+		castlingRights = computeCastlingRights();
+		if(castlingRights != rights) {
+			throw invalidFen(fen, "castling rights do not match the King and Rook positions");
+		}
+		
+		i = skipSpaces(fen, i);
+		if(i < fen.length() && fen.charAt(i) == '-') {
+			i++;
+		} else { //#Specialmove en passant: o peo vulnervel est na casa  frente da informada
+			char file = (i < fen.length()) ? fen.charAt(i) : ' ';
+			char rank = (i + 1 < fen.length()) ? fen.charAt(i + 1) : ' ';
+			if(file < 'a' || file > 'h' || rank != ((side == 'w') ? '6' : '3')) {
+				throw invalidFen(fen, "invalid en passant square");
+			}
+			int square = ChessBoard.square((side == 'w') ? 3 : 4, file - 'a');
+			ChessPiece pawn = board.pieceAt(square);
+			if(pawn == null || pawn.getType() != PieceType.PAWN || pawn.getColor() == currentPlayer) {
+				throw invalidFen(fen, "there is no pawn to be captured en passant");
+			}
+			int step = (side == 'w') ? -8 : 8; //A casa pulada pelo peo e a de origem dele precisam estar vazias
+			if(board.pieceAt(square + step) != null || board.pieceAt(square + 2 * step) != null) {
+				throw invalidFen(fen, "invalid en passant square");
+			}
+			enPassantVulnerable = pawn;
+			i += 2;
+		}
+		
+		i = skipSpaces(fen, i);
+		halfmoveClock = 0;
+		int fullmove = 1;
+		if(i < fen.length()) {
+			int start = i;
+			halfmoveClock = parseNumber(fen, i);
+			i = skipSpaces(fen, skipDigits(fen, start));
+			if(i < fen.length()) {
+				fullmove = Math.max(1, parseNumber(fen, i));
+				i = skipSpaces(fen, skipDigits(fen, i));
+			}
+		}
+		if(i < fen.length()) {
+			throw invalidFen(fen, "unexpected characters at the end");
+		}
+		turn = 2 * (fullmove - 1) + ((side == 'w') ? 1 : 2);
+		
+		stateKey = computeStateKey();
+		if(testCheck(currentPlayer.opponent())) {
+			throw invalidFen(fen, "the side not to move is in check");
+		}
+		check = testCheck(currentPlayer);
+		checkMate = testCheckMate(currentPlayer);
+		draw = !checkMate && testDraw();
+	}
+	
+	private void loadSnapshot(Snapshot snapshot) { //O snapshot vem de uma partida vlida ou de Snapshot.read, que o valida como loadFen
+		if(!snapshot.isEnPassantPathEmpty()) { //Verificado antes de alterar o tabuleiro
+			throw new IllegalArgumentException("Invalid snapshot: invalid en passant square");
+		}
+		for(long pieces = board.getOccupied(); pieces != 0; pieces &= pieces - 1) { //Em restore, remove a posio anterior
+			board.removePiece(board.position(Long.numberOfTrailingZeros(pieces)));
+		}
+		piecesOnTheBoard.clear();
+		for(long pieces = snapshot.getOccupied(); pieces != 0; pieces &= pieces - 1) {
+			int square = Long.numberOfTrailingZeros(pieces);
+			ChessPiece piece = newPiece(snapshot.getType(square), snapshot.getColor(square));
+			board.placePiece(piece, board.position(square));
+			piecesOnTheBoard.add(piece);
+		}
+		currentPlayer = snapshot.getCurrentPlayer();
+		markMovedPieces(snapshot.getCastlingRights());
+		castlingRights = computeCastlingRights();
+		int column = snapshot.getEnPassantColumn();
+		enPassantVulnerable = (column < 0) ? null : board.pieceAt(ChessBoard.square((currentPlayer == Color.WHITE) ? 3 : 4, column));
+		halfmoveClock = snapshot.getHalfmoveClock();
+		turn = 2 * (snapshot.getFullmoveNumber() - 1) + ((currentPlayer == Color.WHITE) ? 1 : 2);
+		stateKey = computeStateKey();
+		check = testCheck(currentPlayer);
+		checkMate = testCheckMate(currentPlayer);
+		draw = !checkMate && testDraw();
+	}
+	
+	private void markMovedPieces(int rights) { //Reis e torres fora das casas com direito de roque so marcados como j movidos
+		long pieces = board.getPieces(Color.WHITE, PieceType.KING) | board.getPieces(Color.BLACK, PieceType.KING)
+				| board.getPieces(Color.WHITE, PieceType.ROOK) | board.getPieces(Color.BLACK, PieceType.ROOK);
+		long unmoved = 0;
+		if((rights & 1) != 0) unmoved |= (1L << 60) | (1L << 63);
+		if((rights & 2) != 0) unmoved |= (1L << 60) | (1L << 56);
+		if((rights & 4) != 0) unmoved |= (1L << 4) | (1L << 7);
+		if((rights & 8) != 0) unmoved |= (1L << 4) | (1L << 0);
+		pieces &= ~unmoved;
+		while(pieces != 0) {
+			board.pieceAt(Long.numberOfTrailingZeros(pieces)).increaseMoveCount();
+			pieces &= pieces - 1;
+		}
+	}
+	
+	private ChessPiece newPiece(CharSequence fen, char c) {
+		Color color = Character.isUpperCase(c) ? Color.WHITE : Color.BLACK;
+		switch(Character.toUpperCase(c)) {
+		case 'P':
+			return new Pawn(board, color, this);
+		case 'N':
+			return new Knight(board, color);
+		case 'B':
+			return new Bishop(board, color);
+		case 'R':
+			return new Rook(board, color);
+		case 'Q':
+			return new Queen(board, color);
+		case 'K':
+			return new King(board, color);
+		default:
+			throw invalidFen(fen, "unknown piece '" + c + "'");
+		}
+	}
+	
+	private static int skipSpaces(CharSequence fen, int i) {
+		while(i < fen.length() && Character.isWhitespace(fen.charAt(i))) {
+			i++;
+		}
+		return i;
+	}
+	
+	private static int skipDigits(CharSequence fen, int i) {
+		while(i < fen.length() && fen.charAt(i) >= '0' && fen.charAt(i) <= '9') {
+			i++;
+		}
+		return i;
+	}
+	
+	private static int parseNumber(CharSequence fen, int i) {
+		int end = skipDigits(fen, i);
+		if(end == i || end - i > 6 || (end < fen.length() && !Character.isWhitespace(fen.charAt(end)))) {
+			throw invalidFen(fen, "invalid move counter");
+		}
+		int value = 0;
+		for(; i < end; i++) {
+			value = value * 10 + (fen.charAt(i) - '0');
+		}
+		return value;
+	}
+	
+	private static ChessException invalidFen(CharSequence fen, String reason) {
+		return new ChessException("Invalid FEN (" + reason + "): " + fen);
 	}
 	
 	private void placeNewPiece(char column, int row, ChessPiece piece) { //Mtodo para adicionar peas ao jogo
@@ -319,7 +857,7 @@ public class ChessMatch {
 		placeNewPiece('b', 1, new Knight(board, Color.WHITE));
 		placeNewPiece('c', 1, new Bishop(board, Color.WHITE));
 		placeNewPiece('d', 1, new Queen(board, Color.WHITE));
-        placeNewPiece('e', 1, new King(board, Color.WHITE, this));
+        placeNewPiece('e', 1, new King(board, Color.WHITE));
         placeNewPiece('f', 1, new Bishop(board, Color.WHITE));
         placeNewPiece('g', 1, new Knight(board, Color.WHITE));
         placeNewPiece('h', 1, new Rook(board, Color.WHITE));
@@ -336,7 +874,7 @@ public class ChessMatch {
         placeNewPiece('b', 8, new Knight(board, Color.BLACK));
         placeNewPiece('c', 8, new Bishop(board, Color.BLACK));
         placeNewPiece('d', 8, new Queen(board, Color.BLACK));
-        placeNewPiece('e', 8, new King(board, Color.BLACK, this));
+        placeNewPiece('e', 8, new King(board, Color.BLACK));
         placeNewPiece('f', 8, new Bishop(board, Color.BLACK));
         placeNewPiece('g', 8, new Knight(board, Color.BLACK));
         placeNewPiece('h', 8, new Rook(board, Color.BLACK));
@@ -349,4 +887,38 @@ public class ChessMatch {
         placeNewPiece('g', 7, new Pawn(board, Color.BLACK, this));
         placeNewPiece('h', 7, new Pawn(board, Color.BLACK, this));
 	}
+	
+	private static class AsciiSequence implements CharSequence { //Viso de um trecho do ByteBuffer como caracteres, sem copiar os bytes
+		
+		private ByteBuffer buffer;
+		private int start;
+		private int end;
+		
+		public AsciiSequence(ByteBuffer buffer, int start, int end) {
+			this.buffer = buffer;
+			this.start = start;
+			this.end = end;
+		}
+		
+		@Override
+		public int length() {
+			return end - start;
+		}
+		
+		@Override
+		public char charAt(int index) {
+			return (char)(buffer.get(start + index) & 0xFF);
+		}
+		
+		@Override
+		public CharSequence subSequence(int from, int to) {
+			return new AsciiSequence(buffer, start + from, start + to);
+		}
+		
+		@Override
+		public String toString() { //S  usado nas mensagens de erro
+			StringBuilder sb = new StringBuilder(length());
+			return sb.append(this, 0, length()).toString();
+		}
+	}
 }
@@ -17,6 +17,7 @@ public abstract class ChessPiece extends Piece {
 	public Color getColor() {
 		return color;
 	}
+	
 	public int getMoveCount() {
 		return moveCount;
 	}
@@ -29,12 +30,81 @@ public abstract class ChessPiece extends Piece {
 		moveCount--;
 	}
 	
+	void setMoveCount(int moveCount) { //Usado ao copiar a partida
+		this.moveCount = moveCount;
+	}
+	
+	public abstract PieceType getType();
+	
+	public abstract void generateMoves(MoveList moves, long targets); //Escreve no buffer informado os movimentos possveis da pea cujo destino esteja no bitboard de alvos, sem alocar objetos
+	
+	public void generateMoves(MoveList moves) {
+		generateMoves(moves, -1L); //Todas as casas so alvos permitidos
+	}
+	
+	@Override
+	public boolean[][] possibleMoves() { //Adaptador que converte a lista de movimentos para a matriz usada pela UI
+		boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
+		MoveList moves = getChessBoard().getPieceMoves(); //Sem alocao: o buffer  do tabuleiro, que pertence a uma nica partida
+		generateMoves(moves);
+		for(int i = 0; i < moves.size(); i++) {
+			int to = Move.to(moves.get(i));
+			mat[to / 8][to % 8] = true;
+		}
+		return mat;
+	}
+	
+	@Override
+	public boolean possibleMove(Position position) {
+		MoveList moves = getChessBoard().getPieceMoves();
+		generateMoves(moves);
+		int target = ChessBoard.square(position);
+		for(int i = 0; i < moves.size(); i++) {
+			if(Move.to(moves.get(i)) == target) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	@Override
+	public boolean isThereAnyPossibleMove() {
+		MoveList moves = getChessBoard().getPieceMoves();
+		generateMoves(moves);
+		return !moves.isEmpty();
+	}
+	
+	protected ChessBoard getChessBoard() {
+		return (ChessBoard)getBoard();
+	}
+	
+	protected int square() { //ndice da casa atual da pea (ver ChessBoard.square)
+		return ChessBoard.square(position);
+	}
+	
 	public ChessPosition getChessPosition() {
 		return ChessPosition.fromPosition(position);
 	}
 	
+	protected void addMoves(MoveList moves, long targets) { //Gera um movimento para cada casa do bitboard de destinos que no tenha pea da mesma cor
+		ChessBoard board = getChessBoard();
+		int from = square();
+		long occupied = board.getOccupied();
+		targets &= ~board.getPieces(color);
+		while(targets != 0) {
+			int to = Long.numberOfTrailingZeros(targets);
+			targets &= targets - 1;
+			moves.add(Move.encode(from, to, (occupied & (1L << to)) != 0 ? Move.CAPTURE : Move.QUIET));
+		}
+	}
+	
 	protected boolean isThereOpponentPiece(Position position) {
 		ChessPiece p = (ChessPiece)getBoard().piece(position); //Varivel que pega a pea posicionada na casa destinada
 		return p != null && p.getColor() != color; //Verifica se existe uma pea na casa destinada e se a mesma  de cor diferente da pea de origem
 	}
+	
+	protected boolean isThereOpponentPiece(int square) {
+		ChessPiece p = getChessBoard().pieceAt(square);
+		return p != null && p.getColor() != color;
+	}
 }
@@ -4,6 +4,13 @@ import boardgame.Position;
 
 public class ChessPosition {
 
+	private static final ChessPosition[] SQUARES = new ChessPosition[64]; //Uma instncia por casa, criadas uma nica vez e compartilhadas por fromSquare
+	static {
+		for(int square = 0; square < 64; square++) {
+			SQUARES[square] = new ChessPosition((char)('a' + square % 8), 8 - square / 8);
+		}
+	}
+	
 	private char column;
 	private int row;
 	
@@ -23,12 +30,20 @@ public class ChessPosition {
 		return row;
 	}
 	
+	public static ChessPosition fromSquare(int square) { //Posio da casa informada (ver ChessBoard.square), sem criar objetos
+		return SQUARES[square];
+	}
+	
+	public int toSquare() {
+		return ChessBoard.square(8 - row, column - 'a');
+	}
+	
 	protected Position toPosition() { //Convertendo o posicionamento das peas de matriz para a linguagem do jogo
 		return new Position(8 - row, column - 'a');
 	}
 	
 	protected static ChessPosition fromPosition(Position position) { //fazendo a converso inversa dessa vez
-		return new ChessPosition((char)('a' + position.getColumn()), 8 - position.getRow());
+		return SQUARES[ChessBoard.square(position)];
 	}
 	
 	@Override
@@ -4,4 +4,8 @@ public enum Color {
 	
 	BLACK,
 	WHITE;
+	
+	public Color opponent() {
+		return (this == WHITE) ? BLACK : WHITE;
+	}
 }
@@ -0,0 +1,135 @@
+package chess;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public final class EvalWeights {
+
+	//Valores padro: material e tabelas pea-casa da "Simplified Evaluation Function", do ponto de vista das brancas, de a8 a h1
+	private static final int[] MATERIAL = { 100, 320, 330, 500, 900, 0 };
+	private static final int[][] TABLES = {
+		{ //Peo
+			 0,  0,  0,  0,  0,  0,  0,  0,
+			50, 50, 50, 50, 50, 50, 50, 50,
+			10, 10, 20, 30, 30, 20, 10, 10,
+			 5,  5, 10, 25, 25, 10,  5,  5,
+			 0,  0,  0, 20, 20,  0,  0,  0,
+			 5, -5,-10,  0,  0,-10, -5,  5,
+			 5, 10, 10,-20,-20, 10, 10,  5,
+			 0,  0,  0,  0,  0,  0,  0,  0
+		},
+		{ //Cavalo
+			-50,-40,-30,-30,-30,-30,-40,-50,
+			-40,-20,  0,  0,  0,  0,-20,-40,
+			-30,  0, 10, 15, 15, 10,  0,-30,
+			-30,  5, 15, 20, 20, 15,  5,-30,
+			-30,  0, 15, 20, 20, 15,  0,-30,
+			-30,  5, 10, 15, 15, 10,  5,-30,
+			-40,-20,  0,  5,  5,  0,-20,-40,
+			-50,-40,-30,-30,-30,-30,-40,-50
+		},
+		{ //Bispo
+			-20,-10,-10,-10,-10,-10,-10,-20,
+			-10,  0,  0,  0,  0,  0,  0,-10,
+			-10,  0,  5, 10, 10,  5,  0,-10,
+			-10,  5,  5, 10, 10,  5,  5,-10,
+			-10,  0, 10, 10, 10, 10,  0,-10,
+			-10, 10, 10, 10, 10, 10, 10,-10,
+			-10,  5,  0,  0,  0,  0,  5,-10,
+			-20,-10,-10,-10,-10,-10,-10,-20
+		},
+		{ //Torre
+			 0,  0,  0,  0,  0,  0,  0,  0,
+			 5, 10, 10, 10, 10, 10, 10,  5,
+			-5,  0,  0,  0,  0,  0,  0, -5,
+			-5,  0,  0,  0,  0,  0,  0, -5,
+			-5,  0,  0,  0,  0,  0,  0, -5,
+			-5,  0,  0,  0,  0,  0,  0, -5,
+			-5,  0,  0,  0,  0,  0,  0, -5,
+			 0,  0,  0,  5,  5,  0,  0,  0
+		},
+		{ //Rainha
+			-20,-10,-10, -5, -5,-10,-10,-20,
+			-10,  0,  0,  0,  0,  0,  0,-10,
+			-10,  0,  5,  5,  5,  5,  0,-10,
+			 -5,  0,  5,  5,  5,  5,  0, -5,
+			  0,  0,  5,  5,  5,  5,  0, -5,
+			-10,  5,  5,  5,  5,  5,  0,-10,
+			-10,  0,  5,  0,  0,  0,  0,-10,
+			-20,-10,-10, -5, -5,-10,-10,-20
+		},
+		{ //Rei
+			-30,-40,-40,-50,-50,-40,-40,-30,
+			-30,-40,-40,-50,-50,-40,-40,-30,
+			-30,-40,-40,-50,-50,-40,-40,-30,
+			-30,-40,-40,-50,-50,-40,-40,-30,
+			-20,-30,-30,-40,-40,-30,-30,-20,
+			-10,-20,-20,-20,-20,-20,-20,-10,
+			 20, 20,  0,  0,  0,  0, 20, 20,
+			 20, 30, 10,  0,  0, 10, 30, 20
+		}
+	};
+
+	private static EvalWeights defaultWeights;
+
+	private int[][] values = new int[12][64]; //Material mais tabela, indexado como os bitboards do ChessBoard; negativo para as pretas
+
+	private EvalWeights(int[] material, int[][] tables) {
+		for(PieceType type : PieceType.values()) {
+			int t = type.ordinal();
+			for(int square = 0; square < 64; square++) {
+				int value = material[t] + tables[t][square];
+				values[Color.WHITE.ordinal() * 6 + t][square] = value;
+				values[Color.BLACK.ordinal() * 6 + t][square ^ 56] = -value; //As tabelas das pretas so as das brancas espelhadas verticalmente
+			}
+		}
+	}
+
+	public static synchronized EvalWeights getDefault() { //Pesos lidos do arquivo informado com -Dchess.weights=<arquivo>, ou os valores padro
+		if(defaultWeights == null) {
+			String file = System.getProperty("chess.weights");
+			try {
+				defaultWeights = (file != null) ? load(Paths.get(file)) : new EvalWeights(MATERIAL, TABLES);
+			}
+			catch(IOException e) {
+				throw new UncheckedIOException("Error reading evaluation weights from " + file, e);
+			}
+		}
+		return defaultWeights;
+	}
+
+	public static EvalWeights load(Path path) throws IOException { //Para cada tipo de pea: o nome (PAWN, KNIGHT...), o valor material e 64 valores de a8 a h1; '#' inicia um comentrio
+		int[] material = MATERIAL.clone();
+		int[][] tables = new int[6][];
+		for(int i = 0; i < 6; i++) {
+			tables[i] = TABLES[i].clone(); //Tipos ausentes do arquivo mantm os valores padro
+		}
+		String[] tokens = new String(Files.readAllBytes(path), StandardCharsets.ISO_8859_1).replaceAll("#[^\n]*", " ").trim().split("\\s+");
+		int i = 0;
+		while(i < tokens.length && !tokens[i].isEmpty()) {
+			PieceType type;
+			try {
+				type = PieceType.valueOf(tokens[i++].toUpperCase());
+			}
+			catch(IllegalArgumentException e) {
+				throw new IllegalArgumentException("Unknown piece type in " + path + ": " + tokens[i - 1]);
+			}
+			if(i + 65 > tokens.length) {
+				throw new IllegalArgumentException("Expected a material value and 64 square values for " + type + " in " + path);
+			}
+			material[type.ordinal()] = Integer.parseInt(tokens[i++]);
+			for(int square = 0; square < 64; square++) {
+				tables[type.ordinal()][square] = Integer.parseInt(tokens[i++]);
+			}
+		}
+		return new EvalWeights(material, tables);
+	}
+
+	public int value(int index, int square) { //Valor da pea na casa, com o ndice dos bitboards (cor * 6 + tipo); positivo para as brancas e negativo para as pretas
+		return values[index][square];
+	}
+}
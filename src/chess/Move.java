@@ -0,0 +1,65 @@
+package chess;
+
+public final class Move {
+	
+	//Flags do movimento (4 bits), o bit CAPTURE indica captura e o bit PROMOTION indica promoo
+	public static final int QUIET = 0;
+	public static final int DOUBLE_PAWN_PUSH = 1;
+	public static final int KING_CASTLE = 2;
+	public static final int QUEEN_CASTLE = 3;
+	public static final int CAPTURE = 4;
+	public static final int EN_PASSANT = 5;
+	public static final int PROMOTION = 8;
+	
+	private static final PieceType[] PROMOTION_TYPES = { PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN };
+	
+	private Move() {
+	}
+	
+	public static int encode(int from, int to, int flags) { //Empacota o movimento em um int: origem (bits 0-5), destino (bits 6-11) e flags (bits 12-15)
+		return from | (to << 6) | (flags << 12);
+	}
+	
+	public static int promotion(int from, int to, PieceType type, boolean capture) {
+		return encode(from, to, PROMOTION | (capture ? CAPTURE : 0) | (type.ordinal() - PieceType.KNIGHT.ordinal()));
+	}
+	
+	public static int from(int move) {
+		return move & 0x3F;
+	}
+	
+	public static int to(int move) {
+		return (move >>> 6) & 0x3F;
+	}
+	
+	public static int flags(int move) {
+		return move >>> 12;
+	}
+	
+	public static boolean isCapture(int move) {
+		return (flags(move) & CAPTURE) != 0;
+	}
+	
+	public static boolean isPromotion(int move) {
+		return (flags(move) & PROMOTION) != 0;
+	}
+	
+	public static PieceType promotionType(int move) {
+		return isPromotion(move) ? PROMOTION_TYPES[flags(move) & 3] : null;
+	}
+	
+	public static String toString(int move) { //Notao de coordenadas, por exemplo "e2e4" ou "e7e8q"
+		StringBuilder sb = new StringBuilder(5);
+		appendSquare(sb, from(move));
+		appendSquare(sb, to(move));
+		if(isPromotion(move)) {
+			sb.append("nbrq".charAt(flags(move) & 3));
+		}
+		return sb.toString();
+	}
+	
+	private static void appendSquare(StringBuilder sb, int square) {
+		sb.append((char)('a' + square % 8));
+		sb.append((char)('8' - square / 8));
+	}
+}
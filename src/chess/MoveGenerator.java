@@ -0,0 +1,128 @@
+package chess;
+
+import chess.attacks.Attacks;
+
+class MoveGenerator {
+
+	private ChessBoard board;
+
+	public MoveGenerator(ChessBoard board) {
+		this.board = board;
+	}
+
+	public void generateLegalMoves(Color color, MoveList moves) {
+		generateLegalMoves(color, moves, -1L);
+	}
+
+	public void generateLegalMoves(Color color, MoveList moves, long filter) { //Gera apenas movimentos legais com destino no filtro, calculando check e cravadas uma nica vez por posio
+		generate(color, moves, filter, false);
+	}
+
+	public boolean hasLegalMove(Color color, MoveList buffer) { //Para na primeira pea que tiver um movimento legal, usado nos testes de check mate e afogamento
+		buffer.clear();
+		return generate(color, buffer, -1L, true);
+	}
+
+	private boolean generate(Color color, MoveList moves, long filter, boolean stopAtFirst) {
+		Color opponent = color.opponent();
+		int kingSquare = board.getKingSquare(color);
+		long kingBit = 1L << kingSquare;
+		long occupied = board.getOccupied();
+		long checkers = board.attackersTo(kingSquare, opponent, occupied);
+
+		long danger = attackedSquares(opponent, occupied & ~kingBit); //O rei  retirado da ocupao para no "bloquear" o raio que o ataca
+		int first = moves.size();
+		board.pieceAt(kingSquare).generateMoves(moves, ~danger & filter);
+		if(stopAtFirst && moves.size() > first) {
+			return true;
+		}
+		if(Long.bitCount(checkers) > 1) { //Em check duplo apenas o rei pode se mover
+			return moves.size() > first;
+		}
+
+		long checkMask = filter; //Destinos que resolvem o check: capturar a pea atacante ou bloquear o raio
+		if(checkers != 0) {
+			checkMask &= checkers | Attacks.between(kingSquare, Long.numberOfTrailingZeros(checkers));
+		}
+		long pinned = pinnedPieces(color, kingSquare, occupied);
+
+		long pieces = board.getPieces(color) & ~kingBit;
+		while(pieces != 0) {
+			int square = Long.numberOfTrailingZeros(pieces);
+			pieces &= pieces - 1;
+			long targets = checkMask;
+			if((pinned & (1L << square)) != 0) { //Uma pea cravada s pode andar sobre a linha que a liga ao rei
+				targets &= Attacks.line(kingSquare, square);
+			}
+			ChessPiece piece = board.pieceAt(square);
+			int start = moves.size();
+			piece.generateMoves(moves, targets);
+			if(piece.getType() == PieceType.PAWN) {
+				for(int i = moves.size() - 1; i >= start; i--) { //O en passant retira duas peas da mesma linha, por isso  testado  parte
+					int move = moves.get(i);
+					if(Move.flags(move) == Move.EN_PASSANT && !isLegalEnPassant(move, color, kingSquare)) {
+						moves.remove(i);
+					}
+				}
+			}
+			if(stopAtFirst && moves.size() > first) {
+				return true;
+			}
+		}
+		return moves.size() > first;
+	}
+
+	private long pinnedPieces(Color color, int kingSquare, long occupied) { //Peas da cor informada que so a nica pea entre o rei e uma pea deslizante adversria
+		Color opponent = color.opponent();
+		long queens = board.getPieces(opponent, PieceType.QUEEN);
+		long snipers = (Attacks.rook(kingSquare, 0) & (board.getPieces(opponent, PieceType.ROOK) | queens))
+				| (Attacks.bishop(kingSquare, 0) & (board.getPieces(opponent, PieceType.BISHOP) | queens));
+		long pinned = 0;
+		while(snipers != 0) {
+			long blockers = Attacks.between(kingSquare, Long.numberOfTrailingZeros(snipers)) & occupied;
+			snipers &= snipers - 1;
+			if(Long.bitCount(blockers) == 1) {
+				pinned |= blockers & board.getPieces(color);
+			}
+		}
+		return pinned;
+	}
+
+	private long attackedSquares(Color color, long occupied) { //Todas as casas atacadas pela cor informada
+		long attacks = 0;
+		long pieces = board.getPieces(color);
+		while(pieces != 0) {
+			int square = Long.numberOfTrailingZeros(pieces);
+			pieces &= pieces - 1;
+			switch(board.pieceAt(square).getType()) {
+			case PAWN:
+				attacks |= Attacks.pawn(color, square);
+				break;
+			case KNIGHT:
+				attacks |= Attacks.knight(square);
+				break;
+			case BISHOP:
+				attacks |= Attacks.bishop(square, occupied);
+				break;
+			case ROOK:
+				attacks |= Attacks.rook(square, occupied);
+				break;
+			case QUEEN:
+				attacks |= Attacks.queen(square, occupied);
+				break;
+			case KING:
+				attacks |= Attacks.king(square);
+				break;
+			}
+		}
+		return attacks;
+	}
+
+	private boolean isLegalEnPassant(int move, Color color, int kingSquare) {
+		int from = Move.from(move);
+		int to = Move.to(move);
+		int captured = (color == Color.WHITE) ? to + 8 : to - 8; //O peo capturado fica atrs da casa de destino
+		long occupied = (board.getOccupied() ^ (1L << from) ^ (1L << captured)) | (1L << to);
+		return (board.attackersTo(kingSquare, color.opponent(), occupied) & ~(1L << captured)) == 0;
+	}
+}
@@ -0,0 +1,45 @@
+package chess;
+
+import java.util.Arrays;
+
+public class MoveList {
+	
+	private int[] moves;
+	private int size;
+	
+	public MoveList() {
+		moves = new int[256]; //Nenhuma posio legal tem mais do que 218 movimentos
+	}
+	
+	public void add(int move) {
+		moves[size++] = move;
+	}
+	
+	public void remove(int index) { //Remove em tempo constante trocando pelo ltimo movimento, a ordem no  preservada
+		moves[index] = moves[--size];
+	}
+	
+	public int get(int index) {
+		return moves[index];
+	}
+	
+	public void set(int index, int move) { //Usado pela busca para reordenar os movimentos
+		moves[index] = move;
+	}
+	
+	public void sort() { //Ordem crescente dos movimentos empacotados, que no depende da ordem de gerao
+		Arrays.sort(moves, 0, size);
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	
+	public void clear() { //Reaproveita o mesmo array, sem alocar nada
+		size = 0;
+	}
+}
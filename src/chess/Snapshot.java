@@ -0,0 +1,171 @@
+package chess;
+
+import java.nio.ByteBuffer;
+
+public final class Snapshot { //Posio imutvel e compacta, que pode ser passada entre threads sem cpia nem sincronizao
+
+	//Bits do campo flags
+	private static final int BLACK_TO_MOVE = 1;
+	private static final int CASTLING_SHIFT = 1; //4 bits, como em ChessMatch
+	private static final int EN_PASSANT_SHIFT = 5; //4 bits: 0 sem en passant, ou a coluna do peo vulnervel mais 1
+	private static final int HALFMOVE_SHIFT = 9; //8 bits
+	private static final int FULLMOVE_SHIFT = 17; //15 bits
+
+	private final long occupied;
+	private final long pieces; //Cdigo de 4 bits (cor * 6 + tipo) de cada pea, na ordem das casas ocupadas; as 16 primeiras
+	private final long morePieces; //As 16 seguintes
+	private final int flags;
+
+	public static final int BYTES = 3 * Long.BYTES + Integer.BYTES; //Tamanho gravado por write
+
+	Snapshot(ChessBoard board, Color currentPlayer, int castlingRights, int enPassantColumn, int halfmoveClock, int fullmoveNumber) {
+		occupied = board.getOccupied();
+		if(Long.bitCount(occupied) > 32) {
+			throw new IllegalStateException("A snapshot holds at most 32 pieces");
+		}
+		long low = 0;
+		long high = 0;
+		int i = 0;
+		for(long bits = occupied; bits != 0; bits &= bits - 1, i++) {
+			ChessPiece p = board.pieceAt(Long.numberOfTrailingZeros(bits));
+			long code = p.getColor().ordinal() * 6 + p.getType().ordinal();
+			if(i < 16) {
+				low |= code << (4 * i);
+			} else {
+				high |= code << (4 * (i - 16));
+			}
+		}
+		pieces = low;
+		morePieces = high;
+		flags = ((currentPlayer == Color.BLACK) ? BLACK_TO_MOVE : 0)
+				| (castlingRights << CASTLING_SHIFT)
+				| ((enPassantColumn + 1) << EN_PASSANT_SHIFT)
+				| (Math.min(halfmoveClock, 255) << HALFMOVE_SHIFT)
+				| (Math.min(fullmoveNumber, 0x7FFF) << FULLMOVE_SHIFT);
+	}
+
+	private Snapshot(long occupied, long pieces, long morePieces, int flags) {
+		this.occupied = occupied;
+		this.pieces = pieces;
+		this.morePieces = morePieces;
+		this.flags = flags;
+	}
+
+	public static Snapshot read(ByteBuffer buffer) { //L os bytes gravados por write, a partir da posio atual do buffer
+		long occupied = buffer.getLong();
+		long pieces = buffer.getLong();
+		long morePieces = buffer.getLong();
+		int flags = buffer.getInt();
+		Snapshot snapshot = new Snapshot(occupied, pieces, morePieces, flags);
+		int count = Long.bitCount(occupied);
+		if(count > 32) {
+			throw new IllegalArgumentException("Invalid snapshot: more than 32 pieces");
+		}
+		for(int i = 0; i < count; i++) {
+			if(snapshot.codeAt(i) >= 12) {
+				throw new IllegalArgumentException("Invalid snapshot: unknown piece code");
+			}
+		}
+		int[] kings = new int[2]; //As mesmas regras de fromFen, para que a posio possa ser restaurada sem corromper a partida
+		for(long bits = occupied; bits != 0; bits &= bits - 1) {
+			int square = Long.numberOfTrailingZeros(bits);
+			int code = snapshot.code(square);
+			if(code % 6 == PieceType.KING.ordinal()) {
+				kings[code / 6]++;
+			} else if(code % 6 == PieceType.PAWN.ordinal() && (square < 8 || square >= 56)) {
+				throw new IllegalArgumentException("Invalid snapshot: pawn on the first or last rank");
+			}
+		}
+		if(kings[0] != 1 || kings[1] != 1) {
+			throw new IllegalArgumentException("Invalid snapshot: each side must have exactly one King");
+		}
+		int column = snapshot.getEnPassantColumn();
+		if(column >= 0) { //O peo vulnervel  do lado que acabou de jogar, na 5 fileira se for preto ou na 4 se for branco
+			Color color = snapshot.getCurrentPlayer().opponent();
+			int square = ChessBoard.square((color == Color.BLACK) ? 3 : 4, column);
+			if(column > 7 || snapshot.getColor(square) != color || snapshot.getType(square) != PieceType.PAWN) {
+				throw new IllegalArgumentException("Invalid snapshot: there is no pawn to be captured en passant");
+			}
+			if(!snapshot.isEnPassantPathEmpty()) {
+				throw new IllegalArgumentException("Invalid snapshot: invalid en passant square");
+			}
+		}
+		return snapshot;
+	}
+
+	public void write(ByteBuffer buffer) { //Forma binria com BYTES bytes, para enviar a posio pela rede ou grav-la em arquivo
+		buffer.putLong(occupied).putLong(pieces).putLong(morePieces).putInt(flags);
+	}
+
+	public long getOccupied() {
+		return occupied;
+	}
+
+	public Color getColor(int square) { //Cor da pea na casa (ver ChessBoard.square), ou null se estiver vazia
+		int code = code(square);
+		return (code < 0) ? null : Color.values()[code / 6];
+	}
+
+	public PieceType getType(int square) {
+		int code = code(square);
+		return (code < 0) ? null : PieceType.values()[code % 6];
+	}
+
+	public Color getCurrentPlayer() {
+		return ((flags & BLACK_TO_MOVE) != 0) ? Color.BLACK : Color.WHITE;
+	}
+
+	public int getCastlingRights() {
+		return (flags >>> CASTLING_SHIFT) & 0xF;
+	}
+
+	public int getEnPassantColumn() { //Coluna do peo que pode ser capturado en passant, ou -1
+		return ((flags >>> EN_PASSANT_SHIFT) & 0xF) - 1;
+	}
+
+	public int getHalfmoveClock() {
+		return (flags >>> HALFMOVE_SHIFT) & 0xFF;
+	}
+
+	public int getFullmoveNumber() {
+		return flags >>> FULLMOVE_SHIFT;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if(!(obj instanceof Snapshot)) {
+			return false;
+		}
+		Snapshot other = (Snapshot)obj;
+		return occupied == other.occupied && pieces == other.pieces && morePieces == other.morePieces && flags == other.flags;
+	}
+
+	@Override
+	public int hashCode() {
+		long hash = occupied * 0x9E3779B97F4A7C15L + pieces;
+		hash = hash * 0x9E3779B97F4A7C15L + morePieces;
+		hash = hash * 0x9E3779B97F4A7C15L + flags;
+		return (int)(hash ^ (hash >>> 32));
+	}
+
+	boolean isEnPassantPathEmpty() { //A casa pulada pelo peo vulnervel e a de origem dele precisam estar vazias, seno a captura en passant corromperia o tabuleiro
+		int column = getEnPassantColumn();
+		if(column < 0 || column > 7) {
+			return column < 0;
+		}
+		int step = (getCurrentPlayer() == Color.WHITE) ? -8 : 8; //Da casa do peo em direo  casa de origem dele
+		int square = ChessBoard.square((getCurrentPlayer() == Color.WHITE) ? 3 : 4, column);
+		return code(square + step) < 0 && code(square + 2 * step) < 0;
+	}
+
+	private int code(int square) {
+		if((occupied & (1L << square)) == 0) {
+			return -1;
+		}
+		return codeAt(Long.bitCount(occupied & ((1L << square) - 1))); //Posio da pea entre as casas ocupadas
+	}
+
+	private int codeAt(int i) {
+		return (int)(((i < 16) ? pieces >>> (4 * i) : morePieces >>> (4 * (i - 16))) & 0xF);
+	}
+}
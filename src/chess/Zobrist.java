@@ -0,0 +1,61 @@
+package chess;
+
+public final class Zobrist {
+
+	//Nmeros aleatrios fixos combinados com XOR para formar a chave de 64 bits de uma posio
+	private static final long[][] PIECES = new long[12][64]; //Indexada da mesma forma que os bitboards do ChessBoard
+	private static final long[] CASTLING = new long[16]; //Uma chave para cada combinao de direitos de roque
+	private static final long[] EN_PASSANT = new long[8]; //Uma chave para cada coluna
+	private static final long BLACK_TO_MOVE;
+
+	static {
+		long seed = 0x2545F4914F6CDD1DL; //Semente fixa, para que a mesma posio tenha sempre a mesma chave
+		for(int i = 0; i < 12; i++) {
+			for(int j = 0; j < 64; j++) {
+				seed = next(seed);
+				PIECES[i][j] = mix(seed);
+			}
+		}
+		for(int i = 0; i < 16; i++) {
+			seed = next(seed);
+			CASTLING[i] = mix(seed);
+		}
+		CASTLING[0] = 0; //Sem direitos de roque a chave no muda
+		for(int i = 0; i < 8; i++) {
+			seed = next(seed);
+			EN_PASSANT[i] = mix(seed);
+		}
+		seed = next(seed);
+		BLACK_TO_MOVE = mix(seed);
+	}
+
+	private Zobrist() {
+	}
+
+	public static long piece(Color color, PieceType type, int square) {
+		return PIECES[color.ordinal() * 6 + type.ordinal()][square];
+	}
+
+	public static long castling(int rights) {
+		return CASTLING[rights];
+	}
+
+	public static long enPassant(int column) {
+		return EN_PASSANT[column];
+	}
+
+	public static long blackToMove() {
+		return BLACK_TO_MOVE;
+	}
+
+	private static long next(long seed) { //Gerador xorshift64
+		seed ^= seed << 13;
+		seed ^= seed >>> 7;
+		seed ^= seed << 17;
+		return seed;
+	}
+
+	private static long mix(long seed) {
+		return seed * 0x2545F4914F6CDD1DL;
+	}
+}
@@ -0,0 +1,212 @@
+package chess.attacks;
+
+import chess.Color;
+
+public final class Attacks {
+	
+	//Tabelas de ataque pr-calculadas uma nica vez, indexadas pela casa (a8 = 0, h1 = 63, ver ChessBoard.square)
+	private static final long[] KNIGHT = new long[64];
+	private static final long[] KING = new long[64];
+	private static final long[][] PAWN = new long[2][64]; //Indexada pela cor (Color.ordinal) e pela casa do peo
+	private static final long[][] BETWEEN = new long[64][64]; //Casas entre duas casas alinhadas, sem incluir as pontas
+	private static final long[][] LINE = new long[64][64]; //Linha, coluna ou diagonal inteira que passa pelas duas casas
+	
+	//Magic bitboards: (ocupao & mscara) * magic >>> shift d o ndice direto na tabela de ataques da casa
+	private static final long[] ROOK_MAGICS = {
+		0x1080004008801020L, 0x0840092002C03000L, 0x1900200010400900L, 0x0880100008000480L,
+		0x4200100420080200L, 0x8100020100080400L, 0x0200040110886200L, 0x0200008040220411L,
+		0x0404800084400220L, 0x0000401000402000L, 0x0086001081220440L, 0x0408800800100280L,
+		0x000A001201040820L, 0x8848800200840080L, 0x4001000100040200L, 0x0442000102105084L,
+		0x9080010020804100L, 0x0040404000201009L, 0x0000808010002009L, 0x2200090021D00100L,
+		0x0008008008040080L, 0x0004004002010040L, 0x0011040008015042L, 0x00000A0001768104L,
+		0x0000800080204009L, 0x2010004140002001L, 0x9800200280100080L, 0x1000100080080080L,
+		0x0442000A00049020L, 0x2100040080020080L, 0x0800120400900148L, 0x0010040A00128541L,
+		0x2800804000800030L, 0x1010002000400041L, 0x4000200011004100L, 0x0610008410800800L,
+		0x0400802402800800L, 0xC100020080800400L, 0x0002000802000401L, 0x0182085882000401L,
+		0x0220204000808000L, 0x2860100040024022L, 0x0001002004110040L, 0x99101042000A0020L,
+		0x0004080004008080L, 0x0010040002008080L, 0x2012004881020004L, 0x8300842444820011L,
+		0x0088403882010200L, 0x0820400080210100L, 0x0110910040A00300L, 0x0801100280080480L,
+		0x0242009008200600L, 0x1002000489500200L, 0x0040800200010080L, 0x0091800041000080L,
+		0x0000209300488001L, 0x04C1002414824001L, 0x020020000B001041L, 0x7000100004200901L,
+		0x8002002004100802L, 0x30010002084C0007L, 0x0888221800813004L, 0x4000002840840112L
+	};
+	
+	private static final long[] BISHOP_MAGICS = {
+		0xA010041108003100L, 0x006082020A002900L, 0x6810010619200000L, 0x08281A0520000408L,
+		0x0001104001000400L, 0x0018901008048400L, 0x00040A0210245280L, 0x000200210808A402L,
+		0x9140048410821200L, 0x0800091010820041L, 0x20504804832202C0L, 0x0100091401081000L,
+		0x8021011140000012L, 0x0810020804450400L, 0x208B0542109008A2L, 0x0080084A08040204L,
+		0x0040E2A80811244CL, 0x2505022008008108L, 0x0430220100420040L, 0x010A040420220040L,
+		0x1105000290400000L, 0x0093001200822120L, 0x4000A62048043004L, 0x280120048A015004L,
+		0x006090002A020814L, 0x44042000240800D0L, 0x01102800040A4400L, 0x1004080080220040L,
+		0x0001001011004024L, 0x0010044000805040L, 0x0914041200820100L, 0x0004821012821480L,
+		0x0024040500C05021L, 0x0088611002080200L, 0x0116080A00040020L, 0x4000020080080080L,
+		0x2450450140840040L, 0x0000880201484100L, 0x0222020404020092L, 0x8081110600002E00L,
+		0x2842101105000801L, 0x1100809008001025L, 0x00020202221C0400L, 0x0422014022009020L,
+		0x0210046102100C00L, 0xC004008082029102L, 0x00AA461801101200L, 0x0404080080201108L,
+		0x020542108C205002L, 0x0410544804100100L, 0x0040910841100000L, 0x0400200042021100L,
+		0x00004204850400C0L, 0x0200100410A42102L, 0x1040020801210102L, 0x0805040410420000L,
+		0x2884804130100200L, 0x800C262201242000L, 0x1058000194108800L, 0x0014221054420204L,
+		0x0104000012A02200L, 0x0200881003300100L, 0x0140400202840100L, 0x0402020801010201L
+	};
+	
+	private static final long[] ROOK_MASKS = new long[64];
+	private static final long[] BISHOP_MASKS = new long[64];
+	private static final int[] ROOK_SHIFTS = new int[64];
+	private static final int[] BISHOP_SHIFTS = new int[64];
+	private static final int[] ROOK_OFFSETS = new int[64];
+	private static final int[] BISHOP_OFFSETS = new int[64];
+	private static final long[] ROOK_TABLE = new long[102400];
+	private static final long[] BISHOP_TABLE = new long[5248];
+	
+	private static final int[][] ROOK_DIRECTIONS = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } };
+	private static final int[][] BISHOP_DIRECTIONS = { { -1, -1 }, { -1, 1 }, { 1, -1 }, { 1, 1 } };
+	private static final int[][] KNIGHT_STEPS = { { -1, -2 }, { -2, -1 }, { -2, 1 }, { -1, 2 }, { 1, 2 }, { 2, 1 }, { 2, -1 }, { 1, -2 } };
+	
+	static {
+		for(int square = 0; square < 64; square++) {
+			int row = square / 8;
+			int column = square % 8;
+			for(int[] step : KNIGHT_STEPS) {
+				KNIGHT[square] |= bit(row + step[0], column + step[1]);
+			}
+			for(int i = -1; i <= 1; i++) {
+				for(int j = -1; j <= 1; j++) {
+					if(i != 0 || j != 0) {
+						KING[square] |= bit(row + i, column + j);
+					}
+				}
+			}
+			PAWN[Color.WHITE.ordinal()][square] = bit(row - 1, column - 1) | bit(row - 1, column + 1); //Os pees brancos atacam para cima na matriz
+			PAWN[Color.BLACK.ordinal()][square] = bit(row + 1, column - 1) | bit(row + 1, column + 1);
+		}
+		initLines(ROOK_DIRECTIONS);
+		initLines(BISHOP_DIRECTIONS);
+		initSliders(ROOK_DIRECTIONS, ROOK_MAGICS, ROOK_MASKS, ROOK_SHIFTS, ROOK_OFFSETS, ROOK_TABLE);
+		initSliders(BISHOP_DIRECTIONS, BISHOP_MAGICS, BISHOP_MASKS, BISHOP_SHIFTS, BISHOP_OFFSETS, BISHOP_TABLE);
+	}
+	
+	private Attacks() {
+	}
+	
+	public static long knight(int square) {
+		return KNIGHT[square];
+	}
+	
+	public static long king(int square) {
+		return KING[square];
+	}
+	
+	public static long pawn(Color color, int square) { //Casas atacadas por um peo da cor informada
+		return PAWN[color.ordinal()][square];
+	}
+	
+	public static long rook(int square, long occupied) {
+		return ROOK_TABLE[ROOK_OFFSETS[square] + (int)(((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+	}
+	
+	public static long bishop(int square, long occupied) {
+		return BISHOP_TABLE[BISHOP_OFFSETS[square] + (int)(((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+	}
+	
+	public static long queen(int square, long occupied) {
+		return rook(square, occupied) | bishop(square, occupied);
+	}
+	
+	public static long between(int from, int to) { //Zero caso as casas no estejam alinhadas
+		return BETWEEN[from][to];
+	}
+	
+	public static long line(int from, int to) {
+		return LINE[from][to];
+	}
+	
+	private static void initLines(int[][] directions) {
+		for(int square = 0; square < 64; square++) {
+			for(int[] direction : directions) {
+				long line = ray(square, direction[0], direction[1]) | ray(square, -direction[0], -direction[1]) | (1L << square);
+				long between = 0;
+				int row = square / 8 + direction[0];
+				int column = square % 8 + direction[1];
+				while(exists(row, column)) {
+					int target = row * 8 + column;
+					BETWEEN[square][target] = between;
+					LINE[square][target] = line;
+					between |= 1L << target;
+					row += direction[0];
+					column += direction[1];
+				}
+			}
+		}
+	}
+	
+	private static long ray(int square, int rowStep, int columnStep) {
+		long ray = 0;
+		int row = square / 8 + rowStep;
+		int column = square % 8 + columnStep;
+		while(exists(row, column)) {
+			ray |= bit(row, column);
+			row += rowStep;
+			column += columnStep;
+		}
+		return ray;
+	}
+	
+	private static void initSliders(int[][] directions, long[] magics, long[] masks, int[] shifts, int[] offsets, long[] table) {
+		int offset = 0;
+		for(int square = 0; square < 64; square++) {
+			long mask = relevantOccupancy(square, directions);
+			int bits = Long.bitCount(mask);
+			masks[square] = mask;
+			shifts[square] = 64 - bits;
+			offsets[square] = offset;
+			long subset = 0;
+			do { //Percorre todos os subconjuntos da mscara (truque de Carry-Rippler)
+				int index = (int)((subset * magics[square]) >>> shifts[square]);
+				table[offset + index] = slidingAttacks(square, subset, directions);
+				subset = (subset - mask) & mask;
+			} while(subset != 0);
+			offset += 1 << bits;
+		}
+	}
+	
+	private static long relevantOccupancy(int square, int[][] directions) { //Casas que podem bloquear a pea, sem contar a borda do tabuleiro
+		long mask = 0;
+		for(int[] direction : directions) {
+			int row = square / 8 + direction[0];
+			int column = square % 8 + direction[1];
+			while(exists(row + direction[0], column + direction[1])) {
+				mask |= bit(row, column);
+				row += direction[0];
+				column += direction[1];
+			}
+		}
+		return mask;
+	}
+	
+	private static long slidingAttacks(int square, long occupied, int[][] directions) { //Percorre os raios casa a casa, usado apenas na montagem das tabelas
+		long attacks = 0;
+		for(int[] direction : directions) {
+			int row = square / 8 + direction[0];
+			int column = square % 8 + direction[1];
+			while(exists(row, column)) {
+				long bit = bit(row, column);
+				attacks |= bit;
+				if((occupied & bit) != 0) {
+					break;
+				}
+				row += direction[0];
+				column += direction[1];
+			}
+		}
+		return attacks;
+	}
+	
+	private static boolean exists(int row, int column) {
+		return row >= 0 && row < 8 && column >= 0 && column < 8;
+	}
+	
+	private static long bit(int row, int column) {
+		return exists(row, column) ? 1L << (row * 8 + column) : 0L;
+	}
+}
@@ -0,0 +1,123 @@
+package chess.engine;
+
+import java.util.Arrays;
+
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.Move;
+import chess.MoveList;
+import chess.PieceType;
+
+public class MoveOrdering { //Ordena os movimentos de cada n da busca; cada thread tem a sua, j que as tabelas no so sincronizadas
+
+	//Faixas de valores: movimento da tabela de transposio, capturas que no perdem material e promoes a rainha, killers, os demais pela tabela de histrico e por ltimo as capturas perdedoras
+	private static final int HASH_MOVE = 1 << 30;
+	private static final int CAPTURE = 1 << 28;
+	private static final int KILLER = 1 << 27;
+	private static final int UNDERPROMOTION = -1; //Promoes a outras peas quase nunca so o melhor movimento
+	private static final int LOSING_CAPTURE = -(1 << 24);
+	private static final int HISTORY_LIMIT = 1 << 20; //Ao passar deste valor a tabela de histrico  reduzida pela metade
+
+	private int[][] scores = new int[Search.MAX_PLY + 1][256]; //Valor de cada movimento da lista de cada nvel
+	private int[][] killers = new int[Search.MAX_PLY + 1][2]; //Movimentos quietos que causaram corte beta em cada nvel
+	private int[] history = new int[2 * 64 * 64]; //Indexada por cor, origem e destino
+
+	public void score(ChessMatch chessMatch, MoveList moves, int ply, int hashMove) { //Calcula o valor de cada movimento da lista do nvel informado
+		int[] values = scores[ply];
+		int color = chessMatch.getCurrentPlayer().ordinal();
+		for(int i = 0; i < moves.size(); i++) {
+			int move = moves.get(i);
+			int value;
+			if(move == hashMove) {
+				value = HASH_MOVE;
+			} else if(Move.isCapture(move) || (Move.isPromotion(move) && Move.promotionType(move) == PieceType.QUEEN)) {
+				value = (isLosingCapture(chessMatch, move) ? LOSING_CAPTURE : CAPTURE) + mvvLva(chessMatch, move);
+			} else if(Move.isPromotion(move)) {
+				value = UNDERPROMOTION;
+			} else if(move == killers[ply][0]) {
+				value = KILLER + 1;
+			} else if(move == killers[ply][1]) {
+				value = KILLER;
+			} else {
+				value = history[historyIndex(color, move)];
+			}
+			values[i] = value;
+		}
+	}
+
+	public int next(MoveList moves, int ply, int index) { //Seleciona o melhor movimento restante e o troca para a posio informada; ordena s o que a busca realmente usa
+		int[] values = scores[ply];
+		int best = index;
+		for(int i = index + 1; i < moves.size(); i++) {
+			if(values[i] > values[best]) {
+				best = i;
+			}
+		}
+		int move = moves.get(best);
+		if(best != index) {
+			moves.set(best, moves.get(index));
+			moves.set(index, move);
+			int value = values[best];
+			values[best] = values[index];
+			values[index] = value;
+		}
+		return move;
+	}
+
+	public int getScore(int ply, int index) { //Valor do movimento j selecionado por next; negativo para capturas perdedoras e promoes que no so a rainha
+		return scores[ply][index];
+	}
+
+	public void cutoff(ChessMatch chessMatch, int move, int ply, int depth) { //Registra o movimento quieto que causou um corte beta
+		if(Move.isCapture(move) || Move.isPromotion(move)) {
+			return;
+		}
+		if(killers[ply][0] != move) {
+			killers[ply][1] = killers[ply][0];
+			killers[ply][0] = move;
+		}
+		int index = historyIndex(chessMatch.getCurrentPlayer().ordinal(), move);
+		history[index] += depth * depth;
+		if(history[index] > HISTORY_LIMIT) {
+			age();
+		}
+	}
+
+	public void newSearch() { //Os killers dependem da posio da raiz, j o histrico continua til e  apenas reduzido
+		for(int[] killer : killers) {
+			Arrays.fill(killer, 0);
+		}
+		age();
+	}
+
+	private void age() {
+		for(int i = 0; i < history.length; i++) {
+			history[i] /= 2;
+		}
+	}
+
+	public static boolean isLosingCapture(ChessMatch chessMatch, int move) { //A troca s  calculada quando a pea capturada vale menos que a que captura
+		if(Move.flags(move) == Move.EN_PASSANT || Move.isPromotion(move)) {
+			return false;
+		}
+		ChessPiece victim = chessMatch.pieceAt(Move.to(move));
+		if(victim == null || victim.getType().ordinal() >= chessMatch.pieceAt(Move.from(move)).getType().ordinal()) {
+			return false;
+		}
+		return chessMatch.staticExchange(move) < 0;
+	}
+
+	private static int mvvLva(ChessMatch chessMatch, int move) { //Most valuable victim, least valuable attacker: a pea capturada decide e o atacante desempata
+		int victim = (Move.flags(move) == Move.EN_PASSANT || !Move.isCapture(move)) ? PieceType.PAWN.ordinal() : chessMatch.pieceAt(Move.to(move)).getType().ordinal();
+		int attacker = chessMatch.pieceAt(Move.from(move)).getType().ordinal();
+		int value = (victim + 1) * 8 - attacker;
+		if(Move.isPromotion(move) && Move.promotionType(move) == PieceType.QUEEN) { //Promoo a rainha, com ou sem captura; as capturas com promoo a outra pea no recebem o bnus
+			value += PieceType.QUEEN.ordinal() * 8;
+		}
+		return value;
+	}
+
+	private static int historyIndex(int color, int move) {
+		return (color * 64 + Move.from(move)) * 64 + Move.to(move);
+	}
+}
@@ -0,0 +1,95 @@
+package chess.engine;
+
+import chess.ChessMatch;
+import chess.Color;
+import chess.PieceType;
+
+public class PawnStructure { //Avaliao da estrutura de pees com cache pela chave dos pees; cada thread de busca tem a sua
+
+	public static final int DEFAULT_ENTRIES = 16384;
+
+	private static final int DOUBLED = -10; //Por peo a mais na mesma coluna
+	private static final int ISOLATED = -15; //Por peo sem pees da mesma cor nas colunas vizinhas
+	private static final int[] PASSED = { 0, 5, 10, 20, 35, 60, 100, 0 }; //Peo passado, pela linha contada a partir do prprio lado
+
+	private static final long FILE_A = 0x0101010101010101L;
+
+	private long[] keys;
+	private int[] scores;
+	private int mask;
+	private long probes;
+	private long hits;
+
+	public PawnStructure() {
+		this(DEFAULT_ENTRIES);
+	}
+
+	public PawnStructure(int entries) {
+		if(entries < 1 || Integer.bitCount(entries) != 1) {
+			throw new IllegalArgumentException("Pawn cache size must be a power of two");
+		}
+		keys = new long[entries];
+		scores = new int[entries];
+		mask = entries - 1;
+	}
+
+	public int evaluate(ChessMatch chessMatch) { //Valor da estrutura de pees do ponto de vista das brancas
+		long key = chessMatch.getPawnKey();
+		int index = (int)key & mask;
+		probes++;
+		if(keys[index] == key) { //Sem pees a chave  0, que coincide com as entradas vazias e com o valor 0
+			hits++;
+			return scores[index];
+		}
+		long white = chessMatch.getPieces(Color.WHITE, PieceType.PAWN);
+		long black = chessMatch.getPieces(Color.BLACK, PieceType.PAWN);
+		int score = evaluate(white, black, Color.WHITE) - evaluate(black, white, Color.BLACK);
+		keys[index] = key;
+		scores[index] = score;
+		return score;
+	}
+
+	public long getProbes() {
+		return probes;
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public void clear() {
+		for(int i = 0; i < keys.length; i++) {
+			keys[i] = 0;
+			scores[i] = 0;
+		}
+		probes = 0;
+		hits = 0;
+	}
+
+	private static int evaluate(long own, long enemy, Color color) {
+		int score = 0;
+		for(int column = 0; column < 8; column++) {
+			int count = Long.bitCount(own & (FILE_A << column));
+			if(count > 1) {
+				score += DOUBLED * (count - 1);
+			}
+		}
+		long pawns = own;
+		while(pawns != 0) {
+			int square = Long.numberOfTrailingZeros(pawns);
+			pawns &= pawns - 1;
+			int row = square / 8;
+			int column = square % 8;
+			long file = FILE_A << column;
+			long neighbours = ((column > 0) ? file >>> 1 : 0) | ((column < 7) ? file << 1 : 0);
+			if((own & neighbours) == 0) {
+				score += ISOLATED;
+			}
+			long front = (color == Color.WHITE) ? (1L << (row * 8)) - 1 : -1L << ((row + 1) * 8); //Casas  frente do peo, na direo em que ele anda
+			if((enemy & (file | neighbours) & front) == 0) {
+				score += PASSED[(color == Color.WHITE) ? 7 - row : row];
+			}
+		}
+		return score;
+	}
+}
@@ -0,0 +1,282 @@
+package chess.engine;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import chess.ChessMatch;
+import chess.Color;
+import chess.MoveList;
+
+public class Search {
+
+	public static final int INFINITY = 32000;
+	public static final int MATE = 31000; //Valor de um mate na posio atual; cada lance at o mate reduz o valor em 1
+	public static final int MAX_PLY = 100;
+
+	private static final int ASPIRATION_WINDOW = 25; //Janela inicial em torno do valor da iterao anterior, em centipees
+	private static final int ASPIRATION_DEPTH = 4; //Profundidade a partir da qual a janela de aspirao  usada
+	private static final long CHECK_INTERVAL = 2047; //O tempo e o limite de ns so verificados a cada 2048 ns
+
+	private ChessMatch chessMatch;
+	private TranspositionTable table;
+	private MoveOrdering ordering = new MoveOrdering();
+	private PawnStructure pawnStructure = new PawnStructure();
+	private Consumer<SearchResult> listener;
+
+	//Buffers por nvel da busca, reaproveitados em todos os ns
+	private MoveList[] moves = new MoveList[MAX_PLY + 1];
+	private int[][] pv = new int[MAX_PLY + 1][MAX_PLY + 1]; //Variante principal a partir de cada nvel
+	private int[] pvLength = new int[MAX_PLY + 1];
+
+	private long nodes;
+	private long nodeLimit;
+	private long deadline;
+	private int rootDepth;
+	private int startDepth = 1; //Usado pelas threads auxiliares do Lazy SMP para buscar em profundidades diferentes da principal
+	private boolean newSearch = true; //No Lazy SMP a idade da tabela  avanada uma vez s, por SmpSearch
+	private volatile boolean stopped;
+
+	public Search(ChessMatch chessMatch, TranspositionTable table) {
+		this.chessMatch = chessMatch;
+		this.table = table;
+		for(int i = 0; i < moves.length; i++) {
+			moves[i] = new MoveList();
+		}
+	}
+
+	public void setListener(Consumer<SearchResult> listener) { //Recebe o resultado de cada iterao completa
+		this.listener = listener;
+	}
+
+	public SearchResult search(int maxDepth, long timeMillis, long nodeLimit) { //Busca o melhor movimento do jogador atual; 0 em qualquer limite significa sem limite
+		long start = System.nanoTime();
+		deadline = (timeMillis > 0) ? start + timeMillis * 1_000_000L : Long.MAX_VALUE;
+		this.nodeLimit = (nodeLimit > 0) ? nodeLimit : Long.MAX_VALUE;
+		maxDepth = (maxDepth > 0) ? Math.min(maxDepth, MAX_PLY) : MAX_PLY;
+		nodes = 0;
+		if(newSearch) {
+			table.newSearch();
+		}
+		ordering.newSearch();
+
+		SearchResult result = new SearchResult(new int[0], 0, 0, 0, 0);
+		int score = 0;
+		for(rootDepth = startDepth; rootDepth <= maxDepth; rootDepth++) { //Aprofundamento iterativo: cada iterao ordena a seguinte pela tabela de transposio
+			int delta = ASPIRATION_WINDOW;
+			int alpha = -INFINITY;
+			int beta = INFINITY;
+			if(rootDepth >= ASPIRATION_DEPTH) {
+				alpha = Math.max(score - delta, -INFINITY);
+				beta = Math.min(score + delta, INFINITY);
+			}
+			while(true) {
+				int value = negamax(rootDepth, 0, alpha, beta);
+				if(stopped) {
+					break;
+				}
+				if(value <= alpha) { //Fora da janela: busca de novo com a janela aumentada do lado que falhou
+					alpha = Math.max(value - delta, -INFINITY);
+				} else if(value >= beta) {
+					beta = Math.min(value + delta, INFINITY);
+				} else {
+					score = value;
+					break;
+				}
+				delta *= 2;
+			}
+			if(stopped) { //A iterao incompleta  descartada
+				break;
+			}
+			result = new SearchResult(Arrays.copyOf(pv[0], pvLength[0]), score, rootDepth, nodes, System.nanoTime() - start);
+			if(listener != null) {
+				listener.accept(result);
+			}
+			if(pvLength[0] == 0 || Math.abs(score) >= MATE - rootDepth) { //Sem movimentos legais, ou mate encontrado dentro do horizonte
+				break;
+			}
+		}
+		stopped = false; //Limpo apenas no fim, assim um stop() feito antes de a busca comear no se perde
+		return new SearchResult(result.getPrincipalVariation(), result.getScore(), result.getDepth(), nodes, System.nanoTime() - start);
+	}
+
+	public void stop() { //Pode ser chamado de outra thread; a busca retorna o resultado da ltima iterao completa
+		stopped = true;
+	}
+
+	public long getNodes() {
+		return nodes;
+	}
+
+	public PawnStructure getPawnStructure() {
+		return pawnStructure;
+	}
+
+	void setStartDepth(int startDepth) {
+		this.startDepth = startDepth;
+	}
+
+	void setNewSearch(boolean newSearch) {
+		this.newSearch = newSearch;
+	}
+
+	private int negamax(int depth, int ply, int alpha, int beta) {
+		pvLength[ply] = 0;
+		nodes++;
+		if((nodes & CHECK_INTERVAL) == 0) {
+			checkLimits();
+		}
+		if(stopped) {
+			return 0;
+		}
+		if(ply > 0 && chessMatch.repetitions() > 0) { //Uma repetio basta: se a posio  boa para um lado, o outro pode repeti-la de novo
+			return 0;
+		}
+		if(ply > 0 && chessMatch.getHalfmoveClock() >= 100) { //Regra dos 50 lances, exceto se o lance que a completou deu check mate
+			return chessMatch.testCheckMate(chessMatch.getCurrentPlayer()) ? -MATE + ply : 0;
+		}
+		if(depth <= 0 || ply >= MAX_PLY) {
+			nodes--; //O n  contado pela quiescncia
+			return quiescence(ply, alpha, beta);
+		}
+
+		long key = chessMatch.getZobristKey();
+		long entry = table.probe(key);
+		int hashMove = 0;
+		if(entry != 0) {
+			hashMove = TranspositionTable.move(entry);
+			if(ply > 0 && TranspositionTable.depth(entry) >= depth) { //Na raiz a busca  sempre feita, para ter a variante principal
+				int score = fromTable(TranspositionTable.score(entry), ply);
+				int bound = TranspositionTable.bound(entry);
+				if(bound == TranspositionTable.EXACT
+						|| (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+						|| (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+					return score;
+				}
+			}
+		}
+
+		MoveList list = moves[ply];
+		chessMatch.legalMoves(list);
+		if(list.isEmpty()) { //Check mate ou afogamento
+			return chessMatch.isInCheck() ? -MATE + ply : 0;
+		}
+		ordering.score(chessMatch, list, ply, hashMove);
+
+		int originalAlpha = alpha;
+		int best = -INFINITY;
+		int bestMove = 0;
+		for(int i = 0; i < list.size(); i++) {
+			int move = ordering.next(list, ply, i);
+			chessMatch.makeMove(move);
+			int score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+			chessMatch.undoMove();
+			if(stopped) {
+				return 0;
+			}
+			if(score > best) {
+				best = score;
+				bestMove = move;
+				if(score > alpha) {
+					alpha = score;
+					pv[ply][0] = move; //A variante deste nvel  o movimento seguido da variante do nvel seguinte
+					System.arraycopy(pv[ply + 1], 0, pv[ply], 1, pvLength[ply + 1]);
+					pvLength[ply] = pvLength[ply + 1] + 1;
+					if(alpha >= beta) {
+						ordering.cutoff(chessMatch, move, ply, depth);
+						break;
+					}
+				}
+			}
+		}
+
+		int bound = (best >= beta) ? TranspositionTable.LOWER_BOUND : (best > originalAlpha) ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+		table.store(key, (bound == TranspositionTable.UPPER_BOUND) ? 0 : bestMove, toTable(best, ply), depth, bound); //Sem movimento em UPPER_BOUND a tabela mantm o que j conhecia
+		return best;
+	}
+
+	private int quiescence(int ply, int alpha, int beta) { //Continua a busca apenas com capturas e promoes at a posio ficar quieta, para no avaliar no meio de uma troca
+		pvLength[ply] = 0;
+		nodes++;
+		if((nodes & CHECK_INTERVAL) == 0) {
+			checkLimits();
+		}
+		if(stopped) {
+			return 0;
+		}
+		if(ply >= MAX_PLY) {
+			return evaluate();
+		}
+
+		boolean inCheck = chessMatch.isInCheck();
+		int best = -INFINITY;
+		MoveList list = moves[ply];
+		if(inCheck) { //Em check todas as respostas so testadas, j que no existe a opo de no capturar
+			chessMatch.legalMoves(list);
+			if(list.isEmpty()) {
+				return -MATE + ply;
+			}
+		} else {
+			best = evaluate(); //Valor de no capturar nada
+			if(best >= beta) {
+				return best;
+			}
+			alpha = Math.max(alpha, best);
+			chessMatch.legalCaptures(list);
+		}
+		ordering.score(chessMatch, list, ply, 0);
+
+		for(int i = 0; i < list.size(); i++) {
+			int move = ordering.next(list, ply, i);
+			if(!inCheck && ordering.getScore(ply, i) < 0) { //Capturas que perdem material pela troca esttica no so jogadas; como vm por ltimo, as restantes tambm no
+				break;
+			}
+			chessMatch.makeMove(move);
+			int score = -quiescence(ply + 1, -beta, -alpha);
+			chessMatch.undoMove();
+			if(stopped) {
+				return 0;
+			}
+			if(score > best) {
+				best = score;
+				if(score > alpha) {
+					alpha = score;
+					if(alpha >= beta) {
+						break;
+					}
+				}
+			}
+		}
+		return best;
+	}
+
+	private int evaluate() { //Avaliao mantida pelo tabuleiro mais a estrutura de pees, do ponto de vista do jogador da vez
+		int pawns = pawnStructure.evaluate(chessMatch);
+		return chessMatch.evaluate() + ((chessMatch.getCurrentPlayer() == Color.WHITE) ? pawns : -pawns);
+	}
+
+	private void checkLimits() {
+		if(rootDepth > 1 && (nodes >= nodeLimit || System.nanoTime() >= deadline)) { //A primeira iterao sempre termina, para que haja um movimento
+			stopped = true;
+		}
+	}
+
+	private static int toTable(int score, int ply) { //Valores de mate so guardados relativos ao n, e no  raiz
+		if(score >= MATE - MAX_PLY) {
+			return score + ply;
+		}
+		if(score <= -MATE + MAX_PLY) {
+			return score - ply;
+		}
+		return score;
+	}
+
+	private static int fromTable(int score, int ply) {
+		if(score >= MATE - MAX_PLY) {
+			return score - ply;
+		}
+		if(score <= -MATE + MAX_PLY) {
+			return score + ply;
+		}
+		return score;
+	}
+}
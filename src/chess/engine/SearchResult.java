@@ -0,0 +1,72 @@
+package chess.engine;
+
+import chess.Move;
+
+public class SearchResult {
+
+	private int[] pv;
+	private int score;
+	private int depth;
+	private long nodes;
+	private long nanos;
+
+	public SearchResult(int[] pv, int score, int depth, long nodes, long nanos) {
+		this.pv = pv;
+		this.score = score;
+		this.depth = depth;
+		this.nodes = nodes;
+		this.nanos = nanos;
+	}
+
+	public int getBestMove() { //Movimento empacotado (ver Move), ou 0 se no houver movimento legal
+		return (pv.length > 0) ? pv[0] : 0;
+	}
+
+	public int[] getPrincipalVariation() {
+		return pv.clone();
+	}
+
+	public int getScore() { //Em centipees, do ponto de vista do jogador da vez
+		return score;
+	}
+
+	public int getDepth() {
+		return depth;
+	}
+
+	public long getNodes() {
+		return nodes;
+	}
+
+	public long getNanos() {
+		return nanos;
+	}
+
+	public long getNodesPerSecond() {
+		return (nanos > 0) ? nodes * 1_000_000_000L / nanos : 0;
+	}
+
+	public boolean isMate() {
+		return Math.abs(score) >= Search.MATE - Search.MAX_PLY;
+	}
+
+	public int getMateIn() { //Nmero de lances at o mate, negativo quando o jogador da vez  quem leva o mate
+		int plies = Search.MATE - Math.abs(score);
+		return (score > 0) ? (plies + 1) / 2 : -(plies + 1) / 2;
+	}
+
+	@Override
+	public String toString() { //Formato parecido com a linha "info" do protocolo UCI
+		StringBuilder sb = new StringBuilder();
+		sb.append("depth ").append(depth);
+		sb.append(isMate() ? " score mate " : " score cp ").append(isMate() ? getMateIn() : score);
+		sb.append(" nodes ").append(nodes);
+		sb.append(" nps ").append(getNodesPerSecond());
+		sb.append(" time ").append(nanos / 1_000_000);
+		sb.append(" pv");
+		for(int move : pv) {
+			sb.append(' ').append(Move.toString(move));
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,71 @@
+package chess.engine;
+
+import java.util.function.Consumer;
+
+import chess.ChessMatch;
+
+public class SmpSearch { //Lazy SMP: vrias threads buscam a mesma posio e se ajudam apenas pela tabela de transposio compartilhada
+
+	private ChessMatch chessMatch;
+	private TranspositionTable table;
+	private int threads;
+	private Consumer<SearchResult> listener;
+
+	public SmpSearch(ChessMatch chessMatch, TranspositionTable table) { //Nmero de threads definido na inicializao da JVM com -Dchess.threads=<n>
+		this(chessMatch, table, Integer.getInteger("chess.threads", Runtime.getRuntime().availableProcessors()));
+	}
+
+	public SmpSearch(ChessMatch chessMatch, TranspositionTable table, int threads) {
+		if(threads < 1) {
+			throw new IllegalArgumentException("At least one search thread is required");
+		}
+		this.chessMatch = chessMatch;
+		this.table = table;
+		this.threads = threads;
+	}
+
+	public void setListener(Consumer<SearchResult> listener) { //Recebe os resultados da thread principal
+		this.listener = listener;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	public SearchResult search(int maxDepth, long timeMillis, long nodeLimit) { //A thread que chama faz a busca principal, cujos limites e resultado valem para todas
+		long start = System.nanoTime();
+		table.newSearch(); //Antes de iniciar as threads, que ento j veem a nova idade
+		Search main = new Search(chessMatch, table);
+		main.setListener(listener);
+		main.setNewSearch(false);
+
+		Search[] helpers = new Search[threads - 1];
+		Thread[] workers = new Thread[threads - 1];
+		for(int i = 0; i < helpers.length; i++) {
+			helpers[i] = new Search(chessMatch.copy(), table); //Cada thread tem sua prpria partida, j que ChessMatch e as peas no podem ser compartilhadas
+			helpers[i].setStartDepth(1 + (i + 1) % 2); //Metade das auxiliares comea uma profundidade  frente, para que as threads no faam o mesmo trabalho ao mesmo tempo
+			helpers[i].setNewSearch(false);
+			Search helper = helpers[i];
+			workers[i] = new Thread(() -> helper.search(0, 0, 0), "search-" + (i + 1));
+			workers[i].setDaemon(true);
+			workers[i].start();
+		}
+
+		SearchResult result = main.search(maxDepth, timeMillis, nodeLimit);
+
+		long nodes = result.getNodes();
+		for(int i = 0; i < helpers.length; i++) {
+			helpers[i].stop();
+		}
+		for(int i = 0; i < workers.length; i++) {
+			try {
+				workers[i].join();
+			}
+			catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			nodes += helpers[i].getNodes();
+		}
+		return new SearchResult(result.getPrincipalVariation(), result.getScore(), result.getDepth(), nodes, System.nanoTime() - start);
+	}
+}
@@ -0,0 +1,119 @@
+package chess.engine;
+
+import java.util.Arrays;
+
+public class TranspositionTable {
+
+	//Tipos de limite do valor guardado
+	public static final int EXACT = 0;
+	public static final int LOWER_BOUND = 1; //O valor real  maior ou igual (corte beta)
+	public static final int UPPER_BOUND = 2; //O valor real  menor ou igual (nenhum movimento superou alfa)
+
+	public static final int DEFAULT_MEGABYTES = 16;
+
+	private static final int ENTRY_BYTES = 16; //Chave e dados, um long cada
+	private static final long VALID = 1L << 48; //Diferencia uma entrada gravada de um array zerado
+
+	//Cada balde tem duas entradas: a primeira prefere buscas mais profundas e a segunda  sempre substituda
+	private final long[] keys;
+	private final long[] data;
+	private final int bucketMask;
+	private int age;
+
+	public TranspositionTable() { //Tamanho definido na inicializao da JVM com -Dchess.hash=<MB>
+		this(Integer.getInteger("chess.hash", DEFAULT_MEGABYTES));
+	}
+
+	public TranspositionTable(int megabytes) {
+		if(megabytes < 1) {
+			throw new IllegalArgumentException("Transposition table size must be at least 1 MB");
+		}
+		long entries = Long.highestOneBit(megabytes * 1024L * 1024L / ENTRY_BYTES);
+		entries = Math.min(entries, 1 << 30); //Limite de tamanho de um array em Java
+		keys = new long[(int)entries];
+		data = new long[(int)entries];
+		bucketMask = (int)(entries / 2) - 1;
+	}
+
+	public long probe(long key) { //Retorna a entrada da posio ou 0 caso ela no esteja na tabela
+		int index = bucket(key);
+		for(int i = index; i < index + 2; i++) {
+			long entry = data[i];
+			if((keys[i] ^ entry) == key && entry != 0) { //A chave  guardada com XOR dos dados, assim uma escrita pela metade de outra thread no  aceita
+				return entry;
+			}
+		}
+		return 0;
+	}
+
+	public void store(long key, int move, int score, int depth, int bound) {
+		int index = bucket(key);
+		long old = data[index];
+		boolean sameKey = (keys[index] ^ old) == key;
+		if(!sameKey && old != 0 && age(old) == age && depth(old) > depth) { //A entrada mais profunda e da busca atual  mantida, a nova vai para a segunda posio
+			index++;
+			old = data[index];
+			sameKey = (keys[index] ^ old) == key;
+		}
+		if(move == 0 && sameKey) { //Mantm o melhor movimento j conhecido da posio
+			move = move(old);
+		}
+		long entry = (move & 0xFFFFL)
+				| ((score & 0xFFFFL) << 16)
+				| ((long)Math.max(0, Math.min(depth, 255)) << 32)
+				| ((long)bound << 40)
+				| ((long)age << 42)
+				| VALID;
+		data[index] = entry;
+		keys[index] = key ^ entry;
+	}
+
+	public void newSearch() { //Marca as entradas antigas para que possam ser substitudas
+		age = (age + 1) & 0x3F;
+	}
+
+	public void clear() {
+		Arrays.fill(keys, 0);
+		Arrays.fill(data, 0);
+		age = 0;
+	}
+
+	public int hashfull() { //Ocupao da tabela em partes por mil, estimada pelas primeiras entradas
+		int sample = Math.min(1000, data.length);
+		int used = 0;
+		for(int i = 0; i < sample; i++) {
+			if(data[i] != 0 && age(data[i]) == age) {
+				used++;
+			}
+		}
+		return used * 1000 / sample;
+	}
+
+	public int size() {
+		return data.length;
+	}
+
+	public static int move(long entry) {
+		return (int)(entry & 0xFFFF);
+	}
+
+	public static int score(long entry) {
+		return (short)(entry >>> 16);
+	}
+
+	public static int depth(long entry) {
+		return (int)((entry >>> 32) & 0xFF);
+	}
+
+	public static int bound(long entry) {
+		return (int)((entry >>> 40) & 0x3);
+	}
+
+	private static int age(long entry) {
+		return (int)((entry >>> 42) & 0x3F);
+	}
+
+	private int bucket(long key) {
+		return ((int)(key ^ (key >>> 32)) & bucketMask) * 2;
+	}
+}
@@ -0,0 +1,49 @@
+package chess.pgn;
+
+import chess.ChessMatch;
+
+public class GameResult {
+
+	private long offset;
+	private int plies;
+	private String error;
+	private String result;
+	private ChessMatch chessMatch; //Partida do jogo, que no  mais alterada pelo leitor
+
+	public GameResult(long offset, int plies, String error, String result, ChessMatch chessMatch) {
+		this.offset = offset;
+		this.plies = plies;
+		this.error = error;
+		this.result = result;
+		this.chessMatch = chessMatch;
+	}
+
+	public long getOffset() { //Posio no arquivo onde o jogo comea
+		return offset;
+	}
+
+	public int getPlies() { //Lances legais jogados; em um jogo ilegal o lance invlido  o de nmero plies + 1
+		return plies;
+	}
+
+	public boolean isLegal() {
+		return error == null;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	public String getResult() { //Resultado declarado no PGN (ver PgnReader)
+		return result;
+	}
+
+	public String getFinalFen() { //Posio aps o ltimo lance legal; gerada s quando pedida, guarde a FEN em vez do GameResult para liberar a partida
+		return chessMatch.toFen();
+	}
+
+	@Override
+	public String toString() {
+		return (isLegal() ? "legal" : "illegal at ply " + (plies + 1) + " (" + error + ")") + ", " + result + ", " + getFinalFen();
+	}
+}
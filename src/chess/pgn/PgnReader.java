@@ -0,0 +1,402 @@
+package chess.pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.Move;
+import chess.MoveList;
+import chess.PieceType;
+
+public class PgnReader implements Closeable {
+
+	//Resultados possveis de um jogo
+	public static final String WHITE_WINS = "1-0";
+	public static final String BLACK_WINS = "0-1";
+	public static final String DRAW = "1/2-1/2";
+	public static final String UNKNOWN = "*";
+
+	private static final long WINDOW_SIZE = 64L * 1024 * 1024; //Trecho do arquivo mapeado por vez, assim a memria usada no depende do tamanho do arquivo
+	private static final int MAX_TOKEN = 32;
+
+	private FileChannel channel;
+	private long size;
+	private long end; //Apenas jogos que comeam antes deste byte so lidos
+	private long position; //Prximo byte a ser lido
+	private MappedByteBuffer window;
+	private long windowStart;
+	private int windowLength;
+
+	//Buffers reaproveitados entre os lances e os jogos
+	private byte[] token = new byte[MAX_TOKEN];
+	private StringBuilder fen = new StringBuilder(90);
+	private MoveList moves = new MoveList();
+
+	//Estado do ltimo jogo lido
+	private long gameOffset;
+	private ChessMatch chessMatch;
+	private int plies;
+	private String error;
+	private String result;
+
+	public PgnReader(Path path) throws IOException {
+		this(FileChannel.open(path, StandardOpenOption.READ), 0, Long.MAX_VALUE);
+	}
+
+	public PgnReader(FileChannel channel, long start, long end) throws IOException { //L os jogos que comeam entre start e end, o ltimo pode terminar depois de end
+		this.channel = channel;
+		size = channel.size();
+		position = start;
+		this.end = Math.min(end, size);
+	}
+
+	public boolean nextGame() throws IOException { //L o prximo jogo e repete seus lances em uma nova ChessMatch; retorna false no fim do trecho
+		if(position == 0 && peek() == 0xEF) { //Marca de ordem de bytes do UTF-8
+			position += 3;
+		}
+		if(skipWhitespace() < 0 || position >= end) {
+			return false;
+		}
+		gameOffset = position;
+		chessMatch = null;
+		plies = 0;
+		error = null;
+		result = UNKNOWN;
+		while(peek() == '[') {
+			readTag();
+			skipWhitespace();
+		}
+		if(chessMatch == null) {
+			chessMatch = new ChessMatch();
+		}
+		readMoves();
+		return true;
+	}
+
+	public long getGameOffset() { //Posio no arquivo onde o ltimo jogo comea
+		return gameOffset;
+	}
+
+	public long getPosition() {
+		return position;
+	}
+
+	public ChessMatch getChessMatch() { //Posio final do ltimo jogo, ou a do ltimo lance legal caso haja erro
+		return chessMatch;
+	}
+
+	public int getPlies() { //Lances jogados com sucesso no ltimo jogo
+		return plies;
+	}
+
+	public String getError() { //Motivo pelo qual o ltimo jogo no pde ser repetido at o fim, ou null se todos os lances foram legais
+		return error;
+	}
+
+	public String getResult() {
+		return result;
+	}
+
+	@Override
+	public void close() throws IOException {
+		window = null;
+		channel.close();
+	}
+
+	private void readTag() throws IOException { //[Nome "Valor"]; apenas a tag FEN  interpretada
+		position++;
+		int length = 0;
+		int c;
+		while((c = peek()) > ' ' && c != '"' && c != ']') {
+			if(length < MAX_TOKEN) {
+				token[length] = (byte)c;
+			}
+			length++;
+			position++;
+		}
+		boolean isFen = length == 3 && token[0] == 'F' && token[1] == 'E' && token[2] == 'N';
+		while((c = peek()) >= 0 && c != '"' && c != ']' && c != '\n') {
+			position++;
+		}
+		if(c == '"') {
+			position++;
+			fen.setLength(0);
+			while((c = peek()) >= 0 && c != '"' && c != '\n') {
+				if(c == '\\') { //Caractere escapado dentro do valor
+					position++;
+					c = peek();
+				}
+				if(isFen) {
+					fen.append((char)c);
+				}
+				position++;
+			}
+		}
+		while((c = peek()) >= 0 && c != ']' && c != '\n') {
+			position++;
+		}
+		if(c == ']') {
+			position++;
+		}
+		if(isFen && error == null) {
+			try {
+				chessMatch = ChessMatch.fromFen(fen);
+			}
+			catch(RuntimeException e) { //ChessException para uma FEN invlida, ou qualquer outro erro, que invalida s este jogo
+				error = e.getMessage();
+			}
+		}
+	}
+
+	private void readMoves() throws IOException { //L os lances at o resultado ou at o incio do prximo jogo
+		int depth = 0; //Variantes entre parnteses so ignoradas
+		while(true) {
+			int c = skipWhitespace();
+			if(c < 0 || c == '[') {
+				return;
+			}
+			if(c == '{') {
+				skipPast('}');
+				continue;
+			}
+			if(c == ';' || (c == '%' && isLineStart())) {
+				skipPast('\n');
+				continue;
+			}
+			if(c == '(' || c == ')') {
+				depth = Math.max(0, depth + ((c == '(') ? 1 : -1));
+				position++;
+				continue;
+			}
+			int length = readToken();
+			if(length == 0) { //Caractere isolado que no faz parte de nenhum token
+				position++;
+				continue;
+			}
+			if(depth > 0 || token[0] == '$' || token[length - 1] == '.') { //Variante, NAG ou nmero do lance
+				continue;
+			}
+			String tokenResult = result(length);
+			if(tokenResult != null) {
+				result = tokenResult;
+				return;
+			}
+			if(error == null) {
+				playSan(length);
+			}
+		}
+	}
+
+	private int readToken() throws IOException { //Copia o token para o buffer reaproveitado; o nmero do lance termina nos pontos, como em "12.e4"
+		int length = 0;
+		int c;
+		while((c = peek()) > ' ' && c != '{' && c != '}' && c != '(' && c != ')' && c != ';' && c != '[') {
+			if(length < MAX_TOKEN) {
+				token[length] = (byte)c;
+			}
+			length++;
+			position++;
+			if(c == '.' && token[0] >= '0' && token[0] <= '9') {
+				while(peek() == '.') {
+					position++;
+				}
+				token[Math.min(length, MAX_TOKEN) - 1] = '.';
+				return Math.min(length, MAX_TOKEN);
+			}
+		}
+		return length;
+	}
+
+	private String result(int length) {
+		if(length == 1 && token[0] == '*') {
+			return UNKNOWN;
+		}
+		if(length == 3 && token[1] == '-') {
+			if(token[0] == '1' && token[2] == '0') {
+				return WHITE_WINS;
+			}
+			if(token[0] == '0' && token[2] == '1') {
+				return BLACK_WINS;
+			}
+		}
+		if(length == 7 && token[0] == '1' && token[1] == '/' && token[2] == '2' && token[3] == '-') {
+			return DRAW;
+		}
+		return null;
+	}
+
+	private void playSan(int length) {
+		while(length > 0 && (token[length - 1] == '+' || token[length - 1] == '#' || token[length - 1] == '!' || token[length - 1] == '?')) {
+			length--;
+		}
+		if(length == 0) { //Token formado apenas por anotaes
+			return;
+		}
+		int move = (length <= MAX_TOKEN) ? findMove(length) : -1;
+		if(move < 0) {
+			error = ((move == -2) ? "Ambiguous move " : "Illegal move ") + new String(token, 0, Math.min(length, MAX_TOKEN), StandardCharsets.ISO_8859_1) + " at ply " + (plies + 1);
+			return;
+		}
+		try {
+			chessMatch.performChessMove(ChessPosition.fromSquare(Move.from(move)), ChessPosition.fromSquare(Move.to(move)));
+			if(Move.isPromotion(move) && Move.promotionType(move) != PieceType.QUEEN) { //performChessMove sempre promove a rainha
+				chessMatch.replacePromotedPiece(promotionLetter(Move.promotionType(move)));
+			}
+			plies++;
+		}
+		catch(RuntimeException e) { //Alm de ChessException, um erro inesperado (como BoardException) invalida s este jogo e a leitura continua
+			error = e.getMessage() + " at ply " + (plies + 1);
+		}
+	}
+
+	private int findMove(int length) { //Procura o lance em notao algbrica entre os movimentos legais; retorna -1 se no houver e -2 se houver mais de um
+		chessMatch.legalMoves(moves);
+		if(token[0] == 'O' || token[0] == '0') { //#Specialmove castling
+			int flags = (length == 3) ? Move.KING_CASTLE : (length == 5) ? Move.QUEEN_CASTLE : -1;
+			for(int i = 0; i < moves.size(); i++) {
+				if(Move.flags(moves.get(i)) == flags) {
+					return moves.get(i);
+				}
+			}
+			return -1;
+		}
+		int start = 0;
+		int end = length;
+		PieceType type = pieceType(token[0]);
+		if(type == null) {
+			type = PieceType.PAWN;
+		} else {
+			start++;
+		}
+		PieceType promotion = null;
+		if(end - start > 2 && type == PieceType.PAWN && pieceType((byte)Character.toUpperCase(token[end - 1])) != null) { //e8=Q ou e8Q
+			promotion = pieceType((byte)Character.toUpperCase(token[end - 1]));
+			end--;
+			if(token[end - 1] == '=') {
+				end--;
+			}
+		}
+		if(end - start < 2 || !isFile(token[end - 2]) || !isRank(token[end - 1])) {
+			return -1;
+		}
+		int to = (8 - (token[end - 1] - '0')) * 8 + (token[end - 2] - 'a');
+		int column = -1;
+		int row = -1;
+		for(int i = start; i < end - 2; i++) { //Desambiguao por coluna e/ou linha de origem
+			if(isFile(token[i])) {
+				column = token[i] - 'a';
+			} else if(isRank(token[i])) {
+				row = 8 - (token[i] - '0');
+			} else if(token[i] != 'x' && token[i] != ':' && token[i] != '-') {
+				return -1;
+			}
+		}
+		int found = -1;
+		for(int i = 0; i < moves.size(); i++) {
+			int move = moves.get(i);
+			int from = Move.from(move);
+			if(Move.to(move) != to || (column >= 0 && from % 8 != column) || (row >= 0 && from / 8 != row)) {
+				continue;
+			}
+			ChessPiece piece = chessMatch.pieceAt(from);
+			if(piece.getType() != type) {
+				continue;
+			}
+			if(Move.isPromotion(move) ? Move.promotionType(move) != ((promotion == null) ? PieceType.QUEEN : promotion) : promotion != null) {
+				continue;
+			}
+			if(found >= 0) {
+				return -2;
+			}
+			found = move;
+		}
+		return found;
+	}
+
+	private static PieceType pieceType(byte c) {
+		switch(c) {
+		case 'N':
+			return PieceType.KNIGHT;
+		case 'B':
+			return PieceType.BISHOP;
+		case 'R':
+			return PieceType.ROOK;
+		case 'Q':
+			return PieceType.QUEEN;
+		case 'K':
+			return PieceType.KING;
+		default:
+			return null;
+		}
+	}
+
+	private static String promotionLetter(PieceType type) { //Argumento usado por replacePromotedPiece
+		switch(type) {
+		case KNIGHT:
+			return "N";
+		case BISHOP:
+			return "B";
+		case ROOK:
+			return "R";
+		default:
+			return "Q";
+		}
+	}
+
+	private static boolean isFile(byte c) {
+		return c >= 'a' && c <= 'h';
+	}
+
+	private static boolean isRank(byte c) {
+		return c >= '1' && c <= '8';
+	}
+
+	private boolean isLineStart() throws IOException {
+		if(position == 0) {
+			return true;
+		}
+		position--;
+		boolean lineStart = peek() == '\n';
+		position++;
+		return lineStart;
+	}
+
+	private int skipWhitespace() throws IOException {
+		int c;
+		while((c = peek()) >= 0 && c <= ' ') {
+			position++;
+		}
+		return c;
+	}
+
+	private void skipPast(int delimiter) throws IOException {
+		int c;
+		while((c = peek()) >= 0 && c != delimiter) {
+			position++;
+		}
+		if(c >= 0) {
+			position++;
+		}
+	}
+
+	private int peek() throws IOException { //Byte da posio atual, ou -1 no fim do arquivo; mapeia o prximo trecho ao sair do atual
+		long index = position - windowStart;
+		if(window == null || index < 0 || index >= windowLength) {
+			if(position >= size) {
+				return -1;
+			}
+			windowStart = position;
+			windowLength = (int)Math.min(WINDOW_SIZE, size - position);
+			window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowLength);
+			index = 0;
+		}
+		return window.get((int)index) & 0xFF;
+	}
+}
@@ -0,0 +1,124 @@
+package chess.pgn;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+public class PgnValidator {
+
+	private static final long MIN_CHUNK_SIZE = 1024 * 1024; //Trechos menores no compensam o custo de uma tarefa
+	private static final int CHUNKS_PER_THREAD = 4; //Mais trechos que threads, para equilibrar a carga entre elas
+
+	private ForkJoinPool pool;
+
+	public PgnValidator() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	public PgnValidator(int threads) {
+		pool = new ForkJoinPool(threads);
+	}
+
+	public void validate(Path path, Consumer<GameResult> consumer) throws IOException { //Repete todos os jogos do arquivo em paralelo; nada  guardado, assim a memria usada no depende do nmero de jogos
+		//O consumer  chamado pelas threads do pool ao mesmo tempo e fora da ordem do arquivo (ver GameResult.getOffset)
+		long[] boundaries = split(path, pool.getParallelism() * CHUNKS_PER_THREAD);
+		List<ChunkTask> tasks = new ArrayList<>();
+		for(int i = 0; i < boundaries.length - 1; i++) {
+			tasks.add(new ChunkTask(path, boundaries[i], boundaries[i + 1], consumer));
+			pool.execute(tasks.get(i));
+		}
+		try {
+			for(ChunkTask task : tasks) {
+				task.join();
+			}
+		}
+		catch(UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	private static long[] split(Path path, int chunks) throws IOException { //Divide o arquivo em trechos que comeam no incio de um jogo
+		try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			chunks = (int)Math.max(1, Math.min(chunks, size / MIN_CHUNK_SIZE));
+			long[] boundaries = new long[chunks + 1];
+			boundaries[chunks] = size;
+			ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+			for(int i = 1; i < chunks; i++) {
+				boundaries[i] = Math.max(boundaries[i - 1], nextGame(channel, size * i / chunks, buffer));
+			}
+			return boundaries;
+		}
+	}
+
+	private static long nextGame(FileChannel channel, long position, ByteBuffer buffer) throws IOException { //Primeira linha iniciada por '[' logo aps uma linha em branco, como no incio das tags de um jogo
+		boolean lineStart = false; //A busca pode comear no meio de uma linha
+		boolean blank = false;
+		boolean previousBlank = false;
+		while(true) {
+			buffer.clear();
+			int read = channel.read(buffer, position);
+			if(read <= 0) {
+				return channel.size();
+			}
+			for(int i = 0; i < read; i++) {
+				byte c = buffer.get(i);
+				if(lineStart && c == '[' && previousBlank) {
+					return position + i;
+				}
+				if(c == '\n') {
+					previousBlank = blank;
+					blank = true;
+					lineStart = true;
+				} else {
+					lineStart = false;
+					if(c > ' ') {
+						blank = false;
+					}
+				}
+			}
+			position += read;
+		}
+	}
+
+	private static class ChunkTask extends RecursiveAction { //Cada tarefa usa seu prprio leitor, e cada jogo sua prpria ChessMatch
+
+		private static final long serialVersionUID = 1L;
+
+		private Path path;
+		private long start;
+		private long end;
+		private transient Consumer<GameResult> consumer;
+
+		public ChunkTask(Path path, long start, long end, Consumer<GameResult> consumer) {
+			this.path = path;
+			this.start = start;
+			this.end = end;
+			this.consumer = consumer;
+		}
+
+		@Override
+		protected void compute() {
+			try(PgnReader reader = new PgnReader(FileChannel.open(path, StandardOpenOption.READ), start, end)) {
+				while(reader.nextGame()) {
+					consumer.accept(new GameResult(reader.getGameOffset(), reader.getPlies(), reader.getError(), reader.getResult(), reader.getChessMatch()));
+				}
+			}
+			catch(IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+}
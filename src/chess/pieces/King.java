@@ -1,18 +1,17 @@
 package chess.pieces;
 
 import boardgame.Board;
-import boardgame.Position;
-import chess.ChessMatch;
 import chess.ChessPiece;
 import chess.Color;
+import chess.Move;
+import chess.MoveList;
+import chess.PieceType;
+import chess.attacks.Attacks;
 
 public class King extends ChessPiece{
-	
-	private ChessMatch chessMatch;
 
-	public King(Board board, Color color, ChessMatch chessMatch) {
+	public King(Board board, Color color) {
 		super(board, color);
-		this.chessMatch = chessMatch;
 	}
 
 	@Override
@@ -20,93 +19,37 @@ public class King extends ChessPiece{
 		return "K";
 	}
 	
-	private boolean canMove(Position position) { //Mtodo que verifica se o movimento  permitido
-		ChessPiece p = (ChessPiece)getBoard().piece(position); //Pega a pea da posio indicada
-		return p == null || p.getColor() != getColor(); //Verifica se a pea no  nula e nem da mesma cor
+	@Override
+	public PieceType getType() {
+		return PieceType.KING;
 	}
 	
-	private boolean testRookCastling(Position position) { //Testa se o Roque  permitido
-		ChessPiece p = (ChessPiece)getBoard().piece(position); //Pega a pea na posio indicada
+	private boolean testRookCastling(int square) { //Testa se o Roque  permitido
+		ChessPiece p = getChessBoard().pieceAt(square); //Pega a pea na casa indicada
 		return p != null && p instanceof Rook && p.getColor() == getColor() && p.getMoveCount() == 0;
 	}
 
 	@Override
-	public boolean[][] possibleMoves() {
-		boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
-		
-		Position p = new Position(0, 0);
-		
-		//Above
-		p.setValues(position.getRow() - 1, position.getColumn()); //Move uma casa para cima na matriz
-		if (getBoard().positionExists(p) && canMove(p)) {
-			mat[p.getRow()][p.getColumn()] = true; //permite o movimento caso a posio exista e a pea possa mover para ela
-		}
-		
-		//Below
-		p.setValues(position.getRow() + 1, position.getColumn());
-		if (getBoard().positionExists(p) && canMove(p)) {
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-		
-		//Left
-		p.setValues(position.getRow(), position.getColumn() - 1);
-		if (getBoard().positionExists(p) && canMove(p)) {
-			mat[p.getRow()][p.getColumn()] = true;
-		}		
-				
-		//Right
-		p.setValues(position.getRow(), position.getColumn() + 1);
-		if (getBoard().positionExists(p) && canMove(p)) {
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-		
-		//NW
-		p.setValues(position.getRow() - 1, position.getColumn() - 1);
-		if (getBoard().positionExists(p) && canMove(p)) {
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-		
-		//NE
-		p.setValues(position.getRow() - 1, position.getColumn() + 1);
-		if (getBoard().positionExists(p) && canMove(p)) {
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-		
-		//SW
-		p.setValues(position.getRow() + 1, position.getColumn() - 1);
-		if (getBoard().positionExists(p) && canMove(p)) {
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-		
-		//SE
-		p.setValues(position.getRow() + 1, position.getColumn() + 1);
-		if (getBoard().positionExists(p) && canMove(p)) {
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-		
-		//#Specialmove castling kingside rook
-		if(getMoveCount() == 0 && !chessMatch.getCheck()) { //Caso o rei no tenha realizado nenhum movimento e no esteja em check fazer:
-			//Specialmove castling kingside rook
-			Position posT1 = new Position(position.getRow(), position.getColumn() + 3); //Posio onde deve estar a torre do rei
-				if(testRookCastling(posT1)) {//Caso a torre passe no teste:
-					Position p1 = new Position(position.getRow(), position.getColumn() + 1);
-					Position p2 = new Position(position.getRow(), position.getColumn() + 2);
-					if(getBoard().piece(p1) == null && getBoard().piece(p2) == null) { //Caso as duas casas ao lado direito do rei estejam vazias:
-						 mat[position.getRow()][position.getColumn() + 2] = true; //Permite o Roque
-					}
+	public void generateMoves(MoveList moves, long targets) {
+		int square = square();
+		addMoves(moves, Attacks.king(square) & targets);
+		
+		if(getMoveCount() == 0 && !getChessBoard().isSquareAttacked(square, getColor().opponent())) { //Caso o rei no tenha realizado nenhum movimento e no esteja em check fazer:
+			int column = position.getColumn();
+			//#Specialmove castling kingside rook
+			long path = (1L << (square + 1)) | (1L << (square + 2)); //Casas por onde o rei passa, que tambm precisam estar entre os destinos permitidos
+			if(column + 3 < 8 && testRookCastling(square + 3) && (targets & path) == path) { //Caso a torre do rei passe no teste:
+				if(getChessBoard().pieceAt(square + 1) == null && getChessBoard().pieceAt(square + 2) == null) { //Caso as duas casas ao lado direito do rei estejam vazias:
+					moves.add(Move.encode(square, square + 2, Move.KING_CASTLE)); //Permite o Roque
 				}
-		//#Specialmove castling queenside rook
-		Position posT2 = new Position(position.getRow(), position.getColumn() - 4); //Posio onde deve estar a torre da rainha
-		if(testRookCastling(posT2)) {
-			Position p1 = new Position(position.getRow(), position.getColumn() - 1);
-			Position p2 = new Position(position.getRow(), position.getColumn() - 2);
-			Position p3 = new Position(position.getRow(), position.getColumn() - 3);
-			if(getBoard().piece(p1) == null && getBoard().piece(p2) == null && getBoard().piece(p3) == null) {
-				 mat[position.getRow()][position.getColumn() - 2] = true;
-					}
+			}
+			//#Specialmove castling queenside rook
+			path = (1L << (square - 1)) | (1L << (square - 2));
+			if(column - 4 >= 0 && testRookCastling(square - 4) && (targets & path) == path) {
+				if(getChessBoard().pieceAt(square - 1) == null && getChessBoard().pieceAt(square - 2) == null && getChessBoard().pieceAt(square - 3) == null) {
+					moves.add(Move.encode(square, square - 2, Move.QUEEN_CASTLE));
 				}
 			}
-
-		return mat;
+		}
 	}
 }
@@ -1,10 +1,14 @@
 package chess.pieces;
 
 import boardgame.Board;
-import boardgame.Position;
+import chess.ChessBoard;
 import chess.ChessMatch;
 import chess.ChessPiece;
 import chess.Color;
+import chess.Move;
+import chess.MoveList;
+import chess.PieceType;
+import chess.attacks.Attacks;
 
 public class Pawn extends ChessPiece{
 	
@@ -16,78 +20,65 @@ public class Pawn extends ChessPiece{
 	}
 
 	@Override
-	public boolean[][] possibleMoves() {
-		boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
+	public void generateMoves(MoveList moves, long targets) {
+		ChessBoard board = getChessBoard();
+		int step = (getColor() == Color.WHITE) ? -8 : 8; //Os pees brancos sobem uma linha na matriz e os pretos descem
+		int row = position.getRow();
+		int column = position.getColumn();
+		int square = square();
+		int front = square + step;
 		
-		Position p = new Position(0, 0); //Varivel auxiliar
-		
-		if(getColor() == Color.WHITE) { //Lgica para mover os pees brancos
-			p.setValues(position.getRow() - 1, position.getColumn());
-			if(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) { //Caso a posio destinada exista e no tenha nenhuma pea obstruindo permita o movimento
-				mat[p.getRow()][p.getColumn()] = true;
-			}
-			p.setValues(position.getRow() - 2, position.getColumn());
-			Position p2 = new Position(position.getRow() - 1, position.getColumn());
-			if(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p) && getBoard().positionExists(p2) && !getBoard().thereIsAPiece(p2) && getMoveCount() == 0) {
-				mat[p.getRow()][p.getColumn()] = true;
+		if(board.pieceAt(front) == null) { //Caso a casa da frente esteja vazia permita o movimento
+			if((targets & (1L << front)) != 0) {
+				addPawnMove(moves, square, front, false);
 			}
-			p.setValues(position.getRow() - 1, position.getColumn() - 1); //Lgica para capturar peas com o peo
-			if(getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-				mat[p.getRow()][p.getColumn()] = true;
+			int startRow = (getColor() == Color.WHITE) ? 6 : 1;
+			if(row == startRow && board.pieceAt(front + step) == null && (targets & (1L << (front + step))) != 0) {
+				moves.add(Move.encode(square, front + step, Move.DOUBLE_PAWN_PUSH));
 			}
-			p.setValues(position.getRow() - 1, position.getColumn() + 1);
-			if(getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-				mat[p.getRow()][p.getColumn()] = true;
+		}
+		long captures = Attacks.pawn(getColor(), square) & board.getPieces(getColor().opponent()) & targets; //Lgica para capturar peas com o peo
+		while(captures != 0) {
+			addPawnMove(moves, square, Long.numberOfTrailingZeros(captures), true);
+			captures &= captures - 1;
+		}
+		
+		// #specialmove en passant
+		int enPassantRow = (getColor() == Color.WHITE) ? 3 : 4;
+		ChessPiece vulnerable = chessMatch.getEnPassantVulnerable();
+		if(row == enPassantRow && vulnerable != null) {
+			if(column > 0 && board.pieceAt(square - 1) == vulnerable && isThereOpponentPiece(square - 1) && isEnPassantTarget(targets, front - 1, square - 1)) {
+				moves.add(Move.encode(square, front - 1, Move.EN_PASSANT));
 			}
-			
-			// #specialmove en passant white
-			if (position.getRow() == 3) {
-				Position left = new Position(position.getRow(), position.getColumn() - 1);
-				if (getBoard().positionExists(left) && isThereOpponentPiece(left) && getBoard().piece(left) == chessMatch.getEnPassantVulnerable()) {
-					mat[left.getRow() - 1][left.getColumn()] = true;
-				}
-				Position right = new Position(position.getRow(), position.getColumn() + 1);
-				if (getBoard().positionExists(right) && isThereOpponentPiece(right) && getBoard().piece(right) == chessMatch.getEnPassantVulnerable()) {
-					mat[right.getRow() - 1][right.getColumn()] = true;
-				}
+			if(column < 7 && board.pieceAt(square + 1) == vulnerable && isThereOpponentPiece(square + 1) && isEnPassantTarget(targets, front + 1, square + 1)) {
+				moves.add(Move.encode(square, front + 1, Move.EN_PASSANT));
 			}
+		}
+	}
+	
+	private boolean isEnPassantTarget(long targets, int to, int capturedSquare) { //O en passant  permitido se a casa de destino ou o peo capturado estiverem entre os alvos
+		return (targets & ((1L << to) | (1L << capturedSquare))) != 0;
+	}
+	
+	private void addPawnMove(MoveList moves, int from, int to, boolean capture) { //Ao chegar na ltima linha gera uma promoo para cada tipo de pea
+		int row = to / 8;
+		if(row == 0 || row == 7) {
+			moves.add(Move.promotion(from, to, PieceType.QUEEN, capture));
+			moves.add(Move.promotion(from, to, PieceType.ROOK, capture));
+			moves.add(Move.promotion(from, to, PieceType.BISHOP, capture));
+			moves.add(Move.promotion(from, to, PieceType.KNIGHT, capture));
 		} else {
-			p.setValues(position.getRow() + 1, position.getColumn());
-			if(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-				mat[p.getRow()][p.getColumn()] = true;
-			}
-			p.setValues(position.getRow() + 2, position.getColumn());
-			Position p2 = new Position(position.getRow() + 1, position.getColumn());
-			if(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p) && getBoard().positionExists(p2) && !getBoard().thereIsAPiece(p2) && getMoveCount() == 0) {
-				mat[p.getRow()][p.getColumn()] = true;
-			}
-			p.setValues(position.getRow() + 1, position.getColumn() - 1);
-			if(getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-				mat[p.getRow()][p.getColumn()] = true;
-			}
-			p.setValues(position.getRow() + 1, position.getColumn() + 1);
-			if(getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-				mat[p.getRow()][p.getColumn()] = true;
-			}
-			
-			// #specialmove en passant black
-			if (position.getRow() == 4) {
-				Position left = new Position(position.getRow(), position.getColumn() - 1);
-				if (getBoard().positionExists(left) && isThereOpponentPiece(left) && getBoard().piece(left) == chessMatch.getEnPassantVulnerable()) {
-					mat[left.getRow() + 1][left.getColumn()] = true;
-				}
-				Position right = new Position(position.getRow(), position.getColumn() + 1);
-				if (getBoard().positionExists(right) && isThereOpponentPiece(right) && getBoard().piece(right) == chessMatch.getEnPassantVulnerable()) {
-					mat[right.getRow() + 1][right.getColumn()] = true;
-				}
-			}	
+			moves.add(Move.encode(from, to, capture ? Move.CAPTURE : Move.QUIET));
 		}
-		
-		return mat;
 	}
 
 	@Override
 	public String toString() {
 		return "P";
 	}
+	
+	@Override
+	public PieceType getType() {
+		return PieceType.PAWN;
+	}
 }
@@ -1,9 +1,11 @@
 package chess.pieces;
 
 import boardgame.Board;
-import boardgame.Position;
 import chess.ChessPiece;
 import chess.Color;
+import chess.MoveList;
+import chess.PieceType;
+import chess.attacks.Attacks;
 
 public class Rook extends ChessPiece{
 
@@ -17,51 +19,12 @@ public class Rook extends ChessPiece{
 	}
 	
 	@Override
-	public boolean[][] possibleMoves() {
-		boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
-		
-		Position p = new Position(0, 0); //Varivel auxiliar
-		
-		//Above
-		p.setValues(position.getRow() -1, position.getColumn()); //Sobe uma linha na mesma coluna
-		while(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) { //Repete o movimento acima caso a posio exista e j no haja uma pea
-			mat[p.getRow()][p.getColumn()] = true;
-			p.setRow(p.getRow() - 1);
-		}
-		if(getBoard().positionExists(p) && isThereOpponentPiece(p)) { //Verifica se h uma pea do oponente na ultima casa "true"
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-		
-		//Left
-		p.setValues(position.getRow(), position.getColumn() - 1); //anda uma coluna na mesma linha para a esquerda
-		while(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) { 
-			mat[p.getRow()][p.getColumn()] = true;
-			p.setColumn(p.getColumn() - 1);
-		}
-		if(getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-				
-		//Right
-		p.setValues(position.getRow(), position.getColumn() + 1); //anda uma coluna na mesma linha para a direita
-		while(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) { 
-			mat[p.getRow()][p.getColumn()] = true;
-			p.setColumn(p.getColumn() + 1);
-		}
-		if(getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-				
-		//Below
-		p.setValues(position.getRow() + 1, position.getColumn()); //Desce uma linha na mesma coluna
-		while(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-			mat[p.getRow()][p.getColumn()] = true;
-			p.setRow(p.getRow() + 1);
-		}
-		if(getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-			mat[p.getRow()][p.getColumn()] = true;
-		}
-		
-		return mat;
+	public PieceType getType() {
+		return PieceType.ROOK;
+	}
+	
+	@Override
+	public void generateMoves(MoveList moves, long targets) {
+		addMoves(moves, Attacks.rook(square(), getChessBoard().getOccupied()) & targets); //Consulta nica na tabela de ataques da torre
 	}	
 }
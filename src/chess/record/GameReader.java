@@ -0,0 +1,92 @@
+package chess.record;
+
+import java.nio.ByteBuffer;
+
+import chess.ChessMatch;
+import chess.MoveList;
+import chess.Snapshot;
+
+public class GameReader { //L em sequncia as partidas gravadas por GameRecorder a partir da posio atual do buffer, repetindo os lances direto no ChessMatch
+
+	private static final int MAX_PLIES_BYTES = 5;
+
+	private ByteBuffer buffer;
+	private MoveList moves = new MoveList();
+	private ChessMatch chessMatch; //Reaproveitada a cada partida, com restore
+	private int result;
+	private int plies;
+
+	public GameReader(ByteBuffer buffer) {
+		this.buffer = buffer;
+	}
+
+	public static ChessMatch replay(byte[] record) { //Posio final de uma nica partida gravada
+		GameReader reader = new GameReader(ByteBuffer.wrap(record));
+		if(!reader.next()) {
+			throw new IllegalArgumentException("Empty game record");
+		}
+		return reader.getChessMatch();
+	}
+
+	public boolean next() { //L a prxima partida; false quando o buffer acabou
+		if(!buffer.hasRemaining()) {
+			return false;
+		}
+		int header = buffer.get() & 0xFF;
+		if((header & ~(GameRecorder.RESULT_MASK | GameRecorder.START_POSITION)) != 0) {
+			throw new IllegalArgumentException("Invalid game record header at byte " + (buffer.position() - 1));
+		}
+		result = header & GameRecorder.RESULT_MASK;
+		plies = 0;
+		for(int i = 0, b = 0x80; (b & 0x80) != 0; i++) {
+			if(i == MAX_PLIES_BYTES || !buffer.hasRemaining()) {
+				throw new IllegalArgumentException("Invalid game record length at byte " + buffer.position());
+			}
+			b = buffer.get() & 0xFF;
+			plies |= (b & 0x7F) << (7 * i);
+		}
+		Snapshot start = GameRecorder.INITIAL;
+		if((header & GameRecorder.START_POSITION) != 0) {
+			if(buffer.remaining() < Snapshot.BYTES) {
+				throw new IllegalArgumentException("Truncated game record at byte " + buffer.position());
+			}
+			int offset = buffer.position();
+			try {
+				start = Snapshot.read(buffer);
+			}
+			catch(IllegalArgumentException e) { //Uma posio invlida deixaria a partida reaproveitada em um estado inconsistente
+				throw new IllegalArgumentException(e.getMessage() + " at byte " + offset);
+			}
+		}
+		if(plies < 0 || buffer.remaining() < plies) {
+			throw new IllegalArgumentException("Truncated game record at byte " + buffer.position());
+		}
+		if(chessMatch == null) {
+			chessMatch = ChessMatch.fromSnapshot(start);
+		} else {
+			chessMatch.restore(start);
+		}
+		for(int ply = 0; ply < plies; ply++) {
+			int index = buffer.get() & 0xFF;
+			chessMatch.legalMoves(moves);
+			if(index >= moves.size()) {
+				throw new IllegalArgumentException("Illegal move in game record at byte " + (buffer.position() - 1));
+			}
+			moves.sort();
+			chessMatch.performMove(moves.get(index));
+		}
+		return true;
+	}
+
+	public ChessMatch getChessMatch() { //Posio final da ltima partida lida;  alterada pelo prximo next, use copy para guard-la
+		return chessMatch;
+	}
+
+	public int getResult() { //Ver os resultados de GameRecorder
+		return result;
+	}
+
+	public int getPlies() {
+		return plies;
+	}
+}
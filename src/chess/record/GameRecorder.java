@@ -0,0 +1,143 @@
+package chess.record;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.Color;
+import chess.Move;
+import chess.MoveList;
+import chess.PieceType;
+import chess.Snapshot;
+
+public class GameRecorder { //Grava uma partida no formato binrio lido por GameReader; os lances devem ser feitos por este objeto, e no direto no ChessMatch
+	//Formato: um byte de cabealho (resultado nos bits 0 e 1, bit 2 se h posio inicial), o nmero de meio-lances em grupos de 7 bits (o bit 7 indica que h mais um byte),
+	//a posio inicial (ver Snapshot.write) se no for a padro e um byte por meio-lance: a posio do movimento entre os legais em ordem crescente do valor empacotado (ver Move),
+	//ordem que no depende da ordem do gerador de movimentos
+
+	//Resultados
+	public static final int UNKNOWN = 0;
+	public static final int WHITE_WINS = 1;
+	public static final int BLACK_WINS = 2;
+	public static final int DRAW = 3;
+
+	static final int RESULT_MASK = 3;
+	static final int START_POSITION = 4;
+	static final Snapshot INITIAL = new ChessMatch().snapshot();
+
+	private ChessMatch chessMatch;
+	private Snapshot start; //null na posio inicial padro
+	private byte[] moves = new byte[128];
+	private int plies;
+	private int result = -1; //Enquanto no for informado  deduzido do estado da partida
+	private MoveList legal = new MoveList(); //Movimentos legais antes do ltimo lance, usados quando a pea da promoo  trocada
+	private int lastMove;
+
+	public GameRecorder(ChessMatch chessMatch) { //A gravao comea na posio atual da partida
+		this.chessMatch = chessMatch;
+		Snapshot snapshot = chessMatch.snapshot();
+		start = snapshot.equals(INITIAL) ? null : snapshot;
+	}
+
+	public ChessMatch getChessMatch() {
+		return chessMatch;
+	}
+
+	public int getPlies() {
+		return plies;
+	}
+
+	public void setResult(int result) { //Necessrio quando a partida termina por desistncia ou tempo
+		if(result < UNKNOWN || result > DRAW) {
+			throw new IllegalArgumentException("Invalid result " + result);
+		}
+		this.result = result;
+	}
+
+	public ChessPiece performChessMove(ChessPosition sourcePosition, ChessPosition targetPosition) {
+		chessMatch.legalMoves(legal);
+		ChessPiece capturedPiece = chessMatch.performChessMove(sourcePosition, targetPosition);
+		int from = sourcePosition.toSquare();
+		int to = targetPosition.toSquare();
+		for(int i = 0; i < legal.size(); i++) {
+			int move = legal.get(i);
+			if(Move.from(move) == from && Move.to(move) == to && (!Move.isPromotion(move) || Move.promotionType(move) == PieceType.QUEEN)) {
+				lastMove = move;
+				break;
+			}
+		}
+		add(rank(lastMove));
+		return capturedPiece;
+	}
+
+	public ChessPiece replacePromotedPiece(String type) {
+		ChessPiece piece = chessMatch.replacePromotedPiece(type);
+		lastMove = Move.promotion(Move.from(lastMove), Move.to(lastMove), piece.getType(), Move.isCapture(lastMove));
+		moves[plies - 1] = (byte)rank(lastMove);
+		return piece;
+	}
+
+	public ChessPiece performMove(int move) { //Para movimentos empacotados, como os da busca; a promoo j vem no movimento
+		chessMatch.legalMoves(legal);
+		lastMove = move;
+		add(rank(move));
+		return chessMatch.performMove(move);
+	}
+
+	public int size() { //Bytes gravados por write
+		int size = 1 + Snapshot.BYTES * ((start != null) ? 1 : 0) + plies;
+		for(int n = plies; n >= 0x80; n >>>= 7) {
+			size++;
+		}
+		return size + 1;
+	}
+
+	public void write(ByteBuffer buffer) {
+		buffer.put((byte)(resultCode() | ((start != null) ? START_POSITION : 0)));
+		int n = plies;
+		while(n >= 0x80) {
+			buffer.put((byte)(n | 0x80));
+			n >>>= 7;
+		}
+		buffer.put((byte)n);
+		if(start != null) {
+			start.write(buffer);
+		}
+		buffer.put(moves, 0, plies);
+	}
+
+	public byte[] toByteArray() {
+		ByteBuffer buffer = ByteBuffer.allocate(size());
+		write(buffer);
+		return buffer.array();
+	}
+
+	private int resultCode() {
+		if(result >= 0) {
+			return result;
+		}
+		if(chessMatch.getCheckMate()) {
+			return (chessMatch.getCurrentPlayer() == Color.WHITE) ? WHITE_WINS : BLACK_WINS; //Aps o check mate getCurrentPlayer  o vencedor
+		}
+		return chessMatch.getDraw() ? DRAW : UNKNOWN;
+	}
+
+	private int rank(int move) { //Movimentos legais com valor menor que o do movimento; cabe em um byte, j que nenhuma posio tem mais de 218
+		int rank = 0;
+		for(int i = 0; i < legal.size(); i++) {
+			if(legal.get(i) < move) {
+				rank++;
+			}
+		}
+		return rank;
+	}
+
+	private void add(int rank) {
+		if(plies == moves.length) {
+			moves = Arrays.copyOf(moves, plies * 2);
+		}
+		moves[plies++] = (byte)rank;
+	}
+}
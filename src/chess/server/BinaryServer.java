@@ -0,0 +1,155 @@
+package chess.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.ChessPosition;
+import chess.Snapshot;
+
+public class BinaryServer extends SelectorServer { //Protocolo binrio em um socket local, atendido por uma nica thread com Selector; as partidas rodam nos GameActor do GameHost
+	//Pedidos (inteiros em big endian): NEW [op]; MOVE [op][id:4][origem:1][destino:1][promoo:1]; STATUS [op][id:4]; CLOSE [op][id:4]
+	//As casas so ndices de 0 (a8) a 63 (h1), como em ChessBoard.square; a promoo  0 (rainha) ou o ordinal de PieceType do cavalo, bispo, torre ou rainha
+	//Respostas: GAME [op][id:4] para NEW e CLOSE; UPDATE [op][id:4][situao:1][Snapshot:28] para MOVE e STATUS; ERROR [op][id:4][cdigo:1]
+
+	public static final byte NEW = 1;
+	public static final byte MOVE = 2;
+	public static final byte STATUS = 3;
+	public static final byte CLOSE = 4;
+
+	public static final byte GAME = 1;
+	public static final byte UPDATE = 2;
+	public static final byte ERROR = 3;
+
+	//Situao da partida em UPDATE
+	public static final byte PLAYING = 0;
+	public static final byte CHECK = 1;
+	public static final byte CHECKMATE = 2;
+	public static final byte DRAW = 3;
+
+	//Cdigos de ERROR
+	public static final byte NO_GAME = 1;
+	public static final byte ILLEGAL_MOVE = 2;
+	public static final byte GAME_OVER = 3;
+	public static final byte BAD_REQUEST = 4;
+
+	public static final int GAME_SIZE = 5;
+	public static final int UPDATE_SIZE = 6 + Snapshot.BYTES;
+	public static final int ERROR_SIZE = 6;
+
+	private static final String[] PROMOTIONS = { "Q", "N", "B", "R", "Q" }; //Pelo ordinal de PieceType; 0 (peo) significa a rainha padro
+
+	private GameHost host;
+
+	public BinaryServer(GameHost host, int port) throws IOException { //Porta 0 escolhe uma porta livre, ver getPort
+		super(port, "binary-server");
+		this.host = host;
+		start();
+	}
+
+	@Override
+	protected void process(Connection connection, ByteBuffer input) {
+		while(input.hasRemaining()) {
+			int size = requestSize(input.get(input.position()));
+			if(size < 0) { //O restante do fluxo no pode mais ser interpretado
+				input.position(input.limit());
+				connection.send(error(0, BAD_REQUEST));
+				connection.closeAfterReplies();
+				break;
+			}
+			if(input.remaining() < size) {
+				break;
+			}
+			execute(connection, input);
+		}
+	}
+
+	private static int requestSize(byte op) {
+		switch(op) {
+		case NEW:
+			return 1;
+		case MOVE:
+			return 8;
+		case STATUS:
+		case CLOSE:
+			return 5;
+		default:
+			return -1;
+		}
+	}
+
+	private void execute(Connection connection, ByteBuffer input) { //Decodifica um pedido completo; os movimentos vo direto para a partida, sem texto intermedirio
+		byte op = input.get();
+		if(op == NEW) {
+			connection.send(game(host.newGame(new ChessMatch())));
+			return;
+		}
+		int id = input.getInt();
+		GameActor game;
+		try {
+			game = host.getGame(id);
+		}
+		catch(ChessException e) {
+			if(op == MOVE) {
+				input.position(input.position() + 3);
+			}
+			connection.send(error(id, NO_GAME));
+			return;
+		}
+		switch(op) {
+		case MOVE:
+			int from = input.get();
+			int to = input.get();
+			int promotion = input.get();
+			if(from < 0 || from > 63 || to < 0 || to > 63 || promotion < 0 || promotion >= PROMOTIONS.length) {
+				connection.send(error(id, BAD_REQUEST));
+				return;
+			}
+			reply(connection, id, game.submit(chessMatch -> move(chessMatch, id, from, to, promotion)));
+			break;
+		case STATUS:
+			reply(connection, id, game.submit(chessMatch -> update(chessMatch, id)));
+			break;
+		default:
+			host.closeGame(id);
+			connection.send(game(id));
+		}
+	}
+
+	private static void reply(Connection connection, int id, CompletableFuture<byte[]> future) { //A resposta  enviada pela thread da partida assim que fica pronta
+		future.whenComplete((message, e) -> connection.send((e == null) ? message : error(id, BAD_REQUEST)));
+	}
+
+	private static byte[] move(ChessMatch chessMatch, int id, int from, int to, int promotion) { //Roda na thread da partida
+		if(chessMatch.getCheckMate() || chessMatch.getDraw()) {
+			return error(id, GAME_OVER);
+		}
+		try {
+			chessMatch.performChessMove(ChessPosition.fromSquare(from), ChessPosition.fromSquare(to));
+		}
+		catch(ChessException e) {
+			return error(id, ILLEGAL_MOVE);
+		}
+		if(chessMatch.getPromoted() != null && promotion != 0) {
+			chessMatch.replacePromotedPiece(PROMOTIONS[promotion]);
+		}
+		return update(chessMatch, id);
+	}
+
+	private static byte[] update(ChessMatch chessMatch, int id) {
+		byte status = chessMatch.getCheckMate() ? CHECKMATE : chessMatch.getDraw() ? DRAW : chessMatch.getCheck() ? CHECK : PLAYING;
+		ByteBuffer buffer = ByteBuffer.allocate(UPDATE_SIZE).put(UPDATE).putInt(id).put(status);
+		chessMatch.snapshot().write(buffer);
+		return buffer.array();
+	}
+
+	private static byte[] game(int id) {
+		return ByteBuffer.allocate(GAME_SIZE).put(GAME).putInt(id).array();
+	}
+
+	private static byte[] error(int id, byte code) {
+		return ByteBuffer.allocate(ERROR_SIZE).put(ERROR).putInt(id).put(code).array();
+	}
+}
@@ -0,0 +1,63 @@
+package chess.server;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import chess.ChessMatch;
+
+public class GameActor { //Dona de uma partida: as tarefas rodam uma de cada vez, na ordem de chegada, em qualquer thread do executor e sem locks
+
+	private static final int BATCH = 32; //Tarefas executadas antes de devolver a thread para as outras partidas
+
+	private ChessMatch chessMatch;
+	private Executor executor;
+	private Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+	private AtomicBoolean scheduled = new AtomicBoolean(); //Se a partida j est na fila do executor ou rodando
+
+	public GameActor(ChessMatch chessMatch, Executor executor) {
+		this.chessMatch = chessMatch;
+		this.executor = executor;
+	}
+
+	public <T> CompletableFuture<T> submit(Function<ChessMatch, T> task) { //A partida s  acessada pela tarefa; o resultado no deve guardar referncias a ela
+		CompletableFuture<T> future = new CompletableFuture<>();
+		mailbox.add(() -> {
+			try {
+				future.complete(task.apply(chessMatch));
+			}
+			catch(RuntimeException | Error e) { //Com um Error a tarefa tambm termina, e o erro segue para drain
+				future.completeExceptionally(e);
+				if(e instanceof Error) {
+					throw e;
+				}
+			}
+		});
+		schedule();
+		return future;
+	}
+
+	private void schedule() {
+		if(scheduled.compareAndSet(false, true)) {
+			executor.execute(this::drain);
+		}
+	}
+
+	private void drain() {
+		try {
+			Runnable task;
+			for(int i = 0; i < BATCH && (task = mailbox.poll()) != null; i++) {
+				task.run();
+			}
+		}
+		finally { //Mesmo depois de um Error a partida continua atendendo as prximas tarefas
+			scheduled.set(false);
+			if(!mailbox.isEmpty()) { //Tarefas que chegaram depois do ltimo poll, ou que passaram do lote
+				schedule();
+			}
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package chess.server;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.ChessPosition;
+
+public class GameHost { //Partidas em andamento, cada uma com seu GameActor; todas compartilham um pool pequeno de threads
+
+	public static final String PLAYING = "playing";
+	public static final String CHECK = "check";
+	public static final String CHECKMATE = "checkmate";
+	public static final String DRAW = "draw";
+
+	private ExecutorService executor;
+	private Map<Integer, GameActor> games = new ConcurrentHashMap<>();
+	private AtomicInteger nextId = new AtomicInteger(1);
+
+	public GameHost() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	public GameHost(int threads) {
+		AtomicInteger count = new AtomicInteger();
+		executor = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "game-host-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	public int newGame(ChessMatch chessMatch) { //A partida passa a pertencer ao host e no deve mais ser usada pelo chamador
+		int id = nextId.getAndIncrement();
+		games.put(id, new GameActor(chessMatch, executor));
+		return id;
+	}
+
+	public boolean closeGame(int id) {
+		return games.remove(id) != null;
+	}
+
+	public int getGameCount() {
+		return games.size();
+	}
+
+	public GameActor getGame(int id) {
+		GameActor game = games.get(id);
+		if(game == null) {
+			throw new ChessException("There is no game " + id);
+		}
+		return game;
+	}
+
+	public CompletableFuture<String> move(int id, ChessPosition source, ChessPosition target, String promotion) { //Faz o movimento na thread da partida e devolve o novo estado (ver status)
+		return getGame(id).submit(chessMatch -> {
+			if(chessMatch.getCheckMate() || chessMatch.getDraw()) {
+				throw new ChessException("The game is over");
+			}
+			chessMatch.performChessMove(source, target);
+			if(chessMatch.getPromoted() != null && promotion != null) {
+				chessMatch.replacePromotedPiece(promotion);
+			}
+			return status(chessMatch);
+		});
+	}
+
+	public CompletableFuture<String> status(int id) {
+		return getGame(id).submit(GameHost::status);
+	}
+
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	public static String status(ChessMatch chessMatch) { //Situao da partida seguida da posio em FEN
+		String state = chessMatch.getCheckMate() ? CHECKMATE : chessMatch.getDraw() ? DRAW : chessMatch.getCheck() ? CHECK : PLAYING;
+		return chessMatch.toFen(new StringBuilder(100).append(state).append(' ')).toString();
+	}
+}
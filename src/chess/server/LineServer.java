@@ -0,0 +1,157 @@
+package chess.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import boardgame.BoardException;
+import chess.ChessMatch;
+import chess.ChessPosition;
+
+public class LineServer extends SelectorServer { //Protocolo de texto, um comando por linha, em um socket local atendido pela thread do Selector; as partidas ficam no GameHost
+	//Comandos: "new [fen]", "move <id> <origem> <destino> [B|N|R|Q]", "status <id>", "close <id>" e "quit"
+	//Respostas: "ok <id>" para new, "ok <situao> <fen>" para move e status, "ok" para close e "error <mensagem>", sempre na ordem dos comandos
+
+	private static final CompletableFuture<String> QUIT = CompletableFuture.completedFuture(null); //Marca, entre as respostas, o ponto em que a conexo  fechada
+
+	private GameHost host;
+
+	public LineServer(GameHost host, int port) throws IOException { //Porta 0 escolhe uma porta livre, ver getPort
+		super(port, "line-server");
+		this.host = host;
+		start();
+	}
+
+	@Override
+	protected Connection newConnection(SocketChannel channel) {
+		return new LineConnection(channel);
+	}
+
+	@Override
+	protected void process(Connection connection, ByteBuffer input) {
+		LineConnection lineConnection = (LineConnection)connection;
+		while(!lineConnection.quit) {
+			int end = input.position();
+			while(end < input.limit() && input.get(end) != '\n') {
+				end++;
+			}
+			if(end == input.limit()) {
+				if(input.position() == 0 && input.limit() == input.capacity()) { //Linha maior que o buffer de entrada
+					lineConnection.reply(CompletableFuture.completedFuture("error Line too long"));
+					lineConnection.reply(QUIT);
+				}
+				break;
+			}
+			byte[] bytes = new byte[end - input.position()];
+			input.get(bytes);
+			input.get(); //O '\n'
+			String line = new String(bytes, StandardCharsets.US_ASCII).trim();
+			if(line.equals("quit")) {
+				lineConnection.reply(QUIT);
+			} else if(!line.isEmpty()) {
+				lineConnection.reply(execute(line));
+			}
+		}
+		if(lineConnection.quit) { //Comandos enviados depois de quit so ignorados
+			input.position(input.limit());
+		}
+	}
+
+	private CompletableFuture<String> execute(String line) { //Os movimentos e consultas rodam na thread da partida; a resposta chega quando ela termina, sem bloquear o Selector
+		String[] args = line.split("\\s+");
+		try {
+			switch(args[0]) {
+			case "new":
+				ChessMatch chessMatch = (args.length > 1) ? ChessMatch.fromFen(line.substring(line.indexOf(' ') + 1)) : new ChessMatch();
+				return CompletableFuture.completedFuture("ok " + host.newGame(chessMatch));
+			case "move":
+				if(args.length < 4) {
+					return CompletableFuture.completedFuture("error Usage: move <id> <source> <target> [B|N|R|Q]");
+				}
+				return ok(host.move(parseId(args), parsePosition(args[2]), parsePosition(args[3]), (args.length > 4) ? args[4].toUpperCase() : null));
+			case "status":
+				return ok(host.status(parseId(args)));
+			case "close":
+				return CompletableFuture.completedFuture(host.closeGame(parseId(args)) ? "ok" : "error There is no game " + args[1]);
+			default:
+				return CompletableFuture.completedFuture("error Unknown command " + args[0]);
+			}
+		}
+		catch(BoardException | IllegalArgumentException | IllegalStateException e) {
+			return CompletableFuture.completedFuture("error " + e.getMessage());
+		}
+	}
+
+	private static CompletableFuture<String> ok(CompletableFuture<String> status) {
+		return status.handle((text, e) -> {
+			if(e == null) {
+				return "ok " + text;
+			}
+			Throwable cause = (e instanceof CompletionException && e.getCause() != null) ? e.getCause() : e; //Erro na thread da partida, como um movimento ilegal
+			return "error " + cause.getMessage();
+		});
+	}
+
+	private static int parseId(String[] args) {
+		if(args.length < 2) {
+			throw new IllegalArgumentException("Missing game id");
+		}
+		try {
+			return Integer.parseInt(args[1]);
+		}
+		catch(NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid game id " + args[1]);
+		}
+	}
+
+	private static ChessPosition parsePosition(String square) {
+		if(square.length() != 2) {
+			throw new IllegalArgumentException("Invalid square " + square);
+		}
+		return new ChessPosition(square.charAt(0), square.charAt(1) - '0');
+	}
+
+	private class LineConnection extends Connection {
+
+		private Queue<CompletableFuture<String>> replies = new ConcurrentLinkedQueue<>(); //Na ordem dos comandos; cada uma  enviada quando ela e as anteriores esto prontas
+		private AtomicBoolean sending = new AtomicBoolean(); //Apenas uma thread por vez tira respostas da fila
+		private boolean quit; //Usado s pela thread do Selector
+
+		public LineConnection(SocketChannel channel) {
+			super(channel);
+		}
+
+		public void reply(CompletableFuture<String> reply) {
+			if(reply == QUIT) {
+				quit = true;
+			}
+			replies.add(reply);
+			reply.whenComplete((text, e) -> sendReady());
+		}
+
+		private void sendReady() { //Roda na thread que completou a resposta; s copia para a fila de sada, a escrita no socket fica com o Selector
+			while(sending.compareAndSet(false, true)) {
+				CompletableFuture<String> reply;
+				while((reply = replies.peek()) != null && reply.isDone()) {
+					replies.poll();
+					if(reply == QUIT) {
+						closeAfterReplies();
+					} else {
+						send((reply.join() + "\n").getBytes(StandardCharsets.US_ASCII));
+					}
+				}
+				sending.set(false);
+				reply = replies.peek();
+				if(reply == null || !reply.isDone()) { //Uma resposta completada enquanto sending estava ocupado  enviada por esta mesma volta
+					return;
+				}
+			}
+		}
+	}
+}
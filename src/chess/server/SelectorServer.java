@@ -0,0 +1,252 @@
+package chess.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public abstract class SelectorServer implements Closeable { //Base dos servidores em um socket local atendidos por uma nica thread com Selector; as subclasses s interpretam os pedidos
+
+	private static final int MAX_PENDING = 65536; //Bytes de respostas acumuladas a partir dos quais a conexo deixa de ser lida, at o cliente consumi-las
+
+	private Selector selector;
+	private ServerSocketChannel serverChannel;
+	private Queue<Connection> flushQueue = new ConcurrentLinkedQueue<>(); //Conexes com respostas novas, escritas pela thread do Selector
+	private volatile boolean closed;
+	private Thread thread;
+
+	protected SelectorServer(int port, String name) throws IOException { //Porta 0 escolhe uma porta livre, ver getPort; a subclasse chama start ao fim do seu construtor
+		selector = Selector.open();
+		serverChannel = ServerSocketChannel.open();
+		serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+		serverChannel.configureBlocking(false);
+		serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+		thread = new Thread(this::run, name);
+		thread.setDaemon(true);
+	}
+
+	protected void start() {
+		thread.start();
+	}
+
+	public int getPort() {
+		return serverChannel.socket().getLocalPort();
+	}
+
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		selector.wakeup();
+		try {
+			thread.join();
+		}
+		catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	protected Connection newConnection(SocketChannel channel) { //Permite que a subclasse guarde estado prprio em cada conexo
+		return new Connection(channel);
+	}
+
+	protected abstract void process(Connection connection, ByteBuffer input); //Roda na thread do Selector e consome os pedidos completos do buffer; o restante fica para a prxima leitura
+
+	private void run() {
+		try {
+			while(!closed) {
+				try {
+					if(flushQueue.isEmpty()) {
+						selector.select();
+					} else {
+						selector.selectNow();
+					}
+				}
+				catch(IOException e) { //Falha do Selector, que no pertence a nenhuma conexo: registrada, e a thread continua atendendo
+					System.err.println(thread.getName() + ": " + e);
+				}
+				Connection connection;
+				Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+				while(keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					try {
+						handle(key);
+					}
+					catch(RuntimeException e) { //S a conexo que falhou  fechada
+						fail(key, e);
+					}
+				}
+				while((connection = flushQueue.poll()) != null) { //Todas as respostas que chegaram desde a ltima volta saem numa nica escrita por conexo
+					connection.queued.set(false);
+					try {
+						flush(connection);
+					}
+					catch(RuntimeException e) {
+						fail(connection.key, e);
+					}
+				}
+			}
+		}
+		finally {
+			for(SelectionKey key : selector.keys()) {
+				closeQuietly(key);
+			}
+			try {
+				selector.close();
+				serverChannel.close();
+			}
+			catch(IOException e) { //J estava encerrando
+			}
+		}
+	}
+
+	private void handle(SelectionKey key) {
+		if(!key.isValid()) {
+			return;
+		}
+		if(key.isAcceptable()) {
+			accept();
+		} else {
+			Connection connection = (Connection)key.attachment();
+			if(key.isReadable()) {
+				read(connection);
+			}
+			if(key.isValid() && key.isWritable()) {
+				flush(connection);
+			}
+		}
+	}
+
+	private void fail(SelectionKey key, RuntimeException e) {
+		System.err.println(thread.getName() + ": " + e);
+		if(key != null && key.channel() != serverChannel) { //O canal do servidor continua aceitando conexes
+			closeQuietly(key);
+		}
+	}
+
+	private void accept() {
+		SocketChannel channel = null;
+		try {
+			channel = serverChannel.accept();
+			if(channel == null) {
+				return;
+			}
+			channel.configureBlocking(false);
+			channel.socket().setTcpNoDelay(true); //As respostas j so agrupadas por flush
+			Connection connection = newConnection(channel);
+			connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+		}
+		catch(IOException e) { //S esta conexo  descartada; o servidor continua atendendo as outras
+			if(channel != null) {
+				try {
+					channel.close();
+				}
+				catch(IOException e2) {
+				}
+			}
+		}
+	}
+
+	private void read(Connection connection) {
+		ByteBuffer input = connection.input;
+		try {
+			if(connection.channel.read(input) < 0) {
+				closeQuietly(connection.key);
+				return;
+			}
+		}
+		catch(IOException e) {
+			closeQuietly(connection.key);
+			return;
+		}
+		input.flip();
+		process(connection, input);
+		input.compact();
+	}
+
+	private void flush(Connection connection) { //Copia as respostas pendentes para o buffer de sada e escreve o que o socket aceitar
+		if(!connection.key.isValid()) {
+			return;
+		}
+		ByteBuffer output = connection.output;
+		byte[] message;
+		while((message = connection.pending.peek()) != null && output.remaining() >= message.length) {
+			output.put(connection.pending.poll());
+			connection.pendingBytes.addAndGet(-message.length);
+		}
+		output.flip();
+		try {
+			connection.channel.write(output);
+		}
+		catch(IOException e) {
+			closeQuietly(connection.key);
+			return;
+		}
+		output.compact();
+		boolean unsent = output.position() > 0 || !connection.pending.isEmpty();
+		if(!unsent && connection.closing) {
+			closeQuietly(connection.key);
+			return;
+		}
+		int ops = unsent ? SelectionKey.OP_WRITE : 0;
+		if(!connection.closing && connection.pendingBytes.get() + output.position() <= MAX_PENDING) { //Um cliente que envia pedidos sem ler as respostas para de ser lido, em vez de acumular respostas sem limite
+			ops |= SelectionKey.OP_READ;
+		}
+		connection.key.interestOps(ops);
+	}
+
+	private static void closeQuietly(SelectionKey key) {
+		key.cancel();
+		try {
+			key.channel().close();
+		}
+		catch(IOException e) { //Nada a fazer com uma conexo que j falhou
+		}
+	}
+
+	protected class Connection {
+
+		private SocketChannel channel;
+		private SelectionKey key;
+		private ByteBuffer input = ByteBuffer.allocate(4096);
+		private ByteBuffer output = ByteBuffer.allocate(16384);
+		private Queue<byte[]> pending = new ConcurrentLinkedQueue<>(); //Respostas ainda no copiadas para output, vindas de qualquer thread
+		private AtomicInteger pendingBytes = new AtomicInteger(); //Tamanho total das mensagens em pending
+		private AtomicBoolean queued = new AtomicBoolean(); //Se a conexo j est em flushQueue
+		private volatile boolean closing; //Fecha depois de enviar as respostas pendentes
+
+		protected Connection(SocketChannel channel) {
+			this.channel = channel;
+		}
+
+		public void send(byte[] message) { //Pode ser chamado de qualquer thread; a mensagem no pode passar do tamanho de output
+			pendingBytes.addAndGet(message.length);
+			pending.add(message);
+			schedule();
+		}
+
+		public void closeAfterReplies() { //Para de ler a conexo e a fecha assim que as respostas j enviadas por send forem escritas
+			closing = true;
+			schedule();
+		}
+
+		private void schedule() {
+			if(queued.compareAndSet(false, true)) {
+				flushQueue.add(this);
+				if(Thread.currentThread() != thread) { //A thread do Selector esvazia flushQueue antes de voltar a esperar
+					selector.wakeup();
+				}
+			}
+		}
+	}
+}